@@ -0,0 +1,224 @@
+/**
+ * Copyright (C) 2012-2013 enStratus Networks Inc
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.gogrid;
+
+import org.apache.log4j.Logger;
+import org.dasein.cloud.CloudException;
+import org.dasein.cloud.InternalException;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A thread-safe, size-bounded cache of values keyed by string (typically an endpoint) that expire after a time to
+ * live. Values older than the refresh interval but still within their time to live are served while a replacement
+ * is loaded in the background, so steady-state readers never wait on the cloud. Concurrent misses for the same key
+ * share a single load.
+ * @param <T> the type of value being cached
+ * @version 2013.07 initial version
+ * @since 2013.07
+ */
+public class GoGridCache<T> {
+    static private final Logger logger = GoGrid.getLogger(GoGridCache.class);
+
+    /**
+     * Loads a fresh value for the cache.
+     * @param <T> the type of value being loaded
+     */
+    static public interface Loader<T> {
+        /**
+         * @return the loaded value or <code>null</code> if nothing should be cached
+         * @throws CloudException an error occurred loading the value from the cloud
+         * @throws InternalException an error occurred within Dasein Cloud loading the value
+         */
+        public @Nullable T load() throws CloudException, InternalException;
+    }
+
+    /**
+     * The source of the current time for expiry and refresh decisions.
+     */
+    static interface Clock {
+        public long currentTimeMillis();
+    }
+
+    static private final Clock SYSTEM_CLOCK = new Clock() {
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+    };
+
+    static private class Entry<T> {
+        public final long          loadedAt;
+        public final AtomicBoolean refreshing = new AtomicBoolean(false);
+        public final T             value;
+
+        public Entry(@Nonnull T value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private final Clock                                   clock;
+
+    private final ConcurrentHashMap<String,Entry<T>>      entries = new ConcurrentHashMap<String, Entry<T>>();
+    private final ConcurrentHashMap<String,FutureTask<T>> loading = new ConcurrentHashMap<String, FutureTask<T>>();
+    private final int                                     maxEntries;
+    private final Executor                                refresher;
+    private final long                                    refreshInterval;
+    private final long                                    timeToLive;
+
+    /**
+     * @param maxEntries the maximum number of keys to hold before the oldest entry is evicted
+     * @param timeToLive the number of milliseconds after which a value may no longer be served
+     * @param refreshInterval the number of milliseconds after which a value is reloaded in the background
+     */
+    public GoGridCache(@Nonnegative int maxEntries, @Nonnegative long timeToLive, @Nonnegative long refreshInterval) {
+        this(maxEntries, timeToLive, refreshInterval, SYSTEM_CLOCK, null);
+    }
+
+    /**
+     * @param maxEntries the maximum number of keys to hold before the oldest entry is evicted
+     * @param timeToLive the number of milliseconds after which a value may no longer be served
+     * @param refreshInterval the number of milliseconds after which a value is reloaded in the background
+     * @param clock the source of the current time
+     * @param refresher the executor on which background refreshes run, <code>null</code> for the shared workers
+     */
+    GoGridCache(@Nonnegative int maxEntries, @Nonnegative long timeToLive, @Nonnegative long refreshInterval, @Nonnull Clock clock, @Nullable Executor refresher) {
+        this.clock = clock;
+        this.refresher = refresher;
+        this.maxEntries = maxEntries;
+        this.timeToLive = timeToLive;
+        this.refreshInterval = Math.min(refreshInterval, timeToLive);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Provides the cached value for the specified key, loading it if it is absent or expired.
+     * @param key the cache key
+     * @param loader the loader for the value should a load be required
+     * @return the current value or <code>null</code> if the loader provided nothing
+     * @throws CloudException an error occurred loading the value from the cloud
+     * @throws InternalException an error occurred within Dasein Cloud loading the value
+     */
+    public @Nullable T get(@Nonnull final String key, @Nonnull final Loader<T> loader) throws CloudException, InternalException {
+        final Entry<T> entry = entries.get(key);
+        long now = clock.currentTimeMillis();
+
+        if( entry != null && entry.loadedAt + timeToLive > now ) {
+            if( entry.loadedAt + refreshInterval < now && entry.refreshing.compareAndSet(false, true) ) {
+                Executor executor = (refresher == null ? GoGridThreads.getWorkers() : refresher);
+
+                executor.execute(new Runnable() {
+                    public void run() {
+                        try {
+                            load(key, loader);
+                        }
+                        catch( Throwable t ) {
+                            logger.warn("Failed to refresh " + key + ": " + t.getMessage());
+                        }
+                        finally {
+                            entry.refreshing.set(false);
+                        }
+                    }
+                });
+            }
+            return entry.value;
+        }
+        return load(key, loader);
+    }
+
+    public void remove(@Nonnull String key) {
+        entries.remove(key);
+    }
+
+    private @Nullable T load(@Nonnull final String key, @Nonnull final Loader<T> loader) throws CloudException, InternalException {
+        FutureTask<T> task = new FutureTask<T>(new Callable<T>() {
+            public T call() throws CloudException, InternalException {
+                T value = loader.load();
+
+                if( value != null ) {
+                    put(key, value);
+                }
+                return value;
+            }
+        });
+        FutureTask<T> current = loading.putIfAbsent(key, task);
+
+        if( current == null ) {
+            try {
+                task.run();
+            }
+            finally {
+                loading.remove(key, task);
+            }
+            current = task;
+        }
+        try {
+            return current.get();
+        }
+        catch( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new InternalException(e);
+        }
+        catch( ExecutionException e ) {
+            Throwable cause = e.getCause();
+
+            if( cause instanceof CloudException ) {
+                throw (CloudException)cause;
+            }
+            if( cause instanceof InternalException ) {
+                throw (InternalException)cause;
+            }
+            if( cause instanceof RuntimeException ) {
+                throw (RuntimeException)cause;
+            }
+            throw new InternalException(cause);
+        }
+    }
+
+    private void put(@Nonnull String key, @Nonnull T value) {
+        entries.put(key, new Entry<T>(value, clock.currentTimeMillis()));
+        while( entries.size() > maxEntries ) {
+            String oldest = null;
+            long ts = Long.MAX_VALUE;
+
+            for( Map.Entry<String,Entry<T>> e : entries.entrySet() ) {
+                if( !e.getKey().equals(key) && e.getValue().loadedAt < ts ) {
+                    oldest = e.getKey();
+                    ts = e.getValue().loadedAt;
+                }
+            }
+            if( oldest == null ) {
+                break;
+            }
+            entries.remove(oldest);
+        }
+    }
+}
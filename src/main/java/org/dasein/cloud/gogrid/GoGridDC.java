@@ -29,12 +29,15 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Implements data center services based on the GoGrid REST API.
@@ -50,16 +53,44 @@ public class GoGridDC implements DataCenterServices {
 
     GoGridDC(GoGrid provider) { this.provider = provider; }
 
-    @Override
-    public DataCenter getDataCenter(String providerDataCenterId) throws InternalException, CloudException {
-        for( Region r : listRegions() ) {
-            for( DataCenter dc : listDataCenters(r.getProviderRegionId()) ) {
-                if( dc.getProviderDataCenterId().equals(providerDataCenterId) ) {
-                    return dc;
-                }
+    /**
+     * The regions for an endpoint along with their synthetic data centers, indexed by provider ID. An index is
+     * derived from one version of the data center lookup table and is rebuilt only when the lookup catalog
+     * serves a different table, so the catalog's refresh schedule is the only one regions follow. The indexed
+     * objects are shared between callers and are only ever handed out as copies.
+     */
+    static private class RegionIndex {
+        public final HashMap<String,DataCenter>             dataCenters = new HashMap<String, DataCenter>();
+        public final HashMap<String,Collection<DataCenter>> dataCentersByRegion = new HashMap<String, Collection<DataCenter>>();
+        public final HashMap<String,Region>                 regions = new HashMap<String, Region>();
+        public final List<Region>                           regionList;
+        public final JSONArray                              source;
+
+        public RegionIndex(@Nonnull JSONArray source, @Nonnull List<Region> list) {
+            this.source = source;
+            regionList = list;
+            for( Region region : list ) {
+                DataCenter dc = new DataCenter();
+
+                dc.setActive(true);
+                dc.setAvailable(true);
+                dc.setName(region.getName() + "a");
+                dc.setProviderDataCenterId(region.getProviderRegionId() + "a");
+                dc.setRegionId(region.getProviderRegionId());
+                regions.put(region.getProviderRegionId(), region);
+                dataCenters.put(dc.getProviderDataCenterId(), dc);
+                dataCentersByRegion.put(region.getProviderRegionId(), Collections.singletonList(dc));
             }
         }
-        return null;
+    }
+
+    @Override
+    public DataCenter getDataCenter(String providerDataCenterId) throws InternalException, CloudException {
+        RegionIndex index = getIndex();
+
+        DataCenter dc = (index == null ? null : index.dataCenters.get(providerDataCenterId));
+
+        return (dc == null ? null : copy(dc));
     }
 
     @Override
@@ -74,53 +105,89 @@ public class GoGridDC implements DataCenterServices {
 
     @Override
     public Region getRegion(String providerRegionId) throws InternalException, CloudException {
-        for( Region r : listRegions() ) {
-            if( r.getProviderRegionId().equals(providerRegionId) ) {
-                return r;
-            }
-        }
-        return null;
+        RegionIndex index = getIndex();
+
+        Region region = (index == null ? null : index.regions.get(providerRegionId));
+
+        return (region == null ? null : copy(region));
     }
 
     @Override
     public Collection<DataCenter> listDataCenters(String providerRegionId) throws InternalException, CloudException {
-        Region region = getRegion(providerRegionId);
+        RegionIndex index = getIndex();
+        Collection<DataCenter> dataCenters = (index == null ? null : index.dataCentersByRegion.get(providerRegionId));
 
-        if( region == null ) {
+        if( dataCenters == null ) {
             throw new CloudException("No such region: " + providerRegionId);
         }
-        DataCenter dc = new DataCenter();
-        dc.setActive(true);
-        dc.setAvailable(true);
-        dc.setName(region.getName() + "a");
-        dc.setProviderDataCenterId(region.getProviderRegionId() + "a");
-        dc.setRegionId(providerRegionId);
-        return Collections.singletonList(dc);
+        ArrayList<DataCenter> list = new ArrayList<DataCenter>();
+
+        for( DataCenter dc : dataCenters ) {
+            list.add(copy(dc));
+        }
+        return list;
     }
 
-    static private HashMap<String,Collection<Region>> regionCache = new HashMap<String, Collection<Region>>();
+    static private final ConcurrentHashMap<String,RegionIndex> regionIndexes = new ConcurrentHashMap<String, RegionIndex>();
 
     @Override
     public Collection<Region> listRegions() throws InternalException, CloudException {
+        RegionIndex index = getIndex();
+        ArrayList<Region> list = new ArrayList<Region>();
+
+        if( index != null ) {
+            for( Region region : index.regionList ) {
+                list.add(copy(region));
+            }
+        }
+        return list;
+    }
+
+    static private @Nonnull DataCenter copy(@Nonnull DataCenter dc) {
+        DataCenter copy = new DataCenter();
+
+        copy.setActive(dc.isActive());
+        copy.setAvailable(dc.isAvailable());
+        copy.setName(dc.getName());
+        copy.setProviderDataCenterId(dc.getProviderDataCenterId());
+        copy.setRegionId(dc.getRegionId());
+        return copy;
+    }
+
+    static private @Nonnull Region copy(@Nonnull Region region) {
+        Region copy = new Region();
+
+        copy.setActive(region.isActive());
+        copy.setAvailable(region.isAvailable());
+        copy.setJurisdiction(region.getJurisdiction());
+        copy.setName(region.getName());
+        copy.setProviderRegionId(region.getProviderRegionId());
+        return copy;
+    }
+
+    private @Nullable RegionIndex getIndex() throws InternalException, CloudException {
         ProviderContext ctx = provider.getContext();
 
         if( ctx == null ) {
             throw new CloudException("No region was set for this request");
         }
-        Collection<Region> cached = regionCache.get(ctx.getEndpoint());
+        String endpoint = ctx.getEndpoint();
+        JSONArray regionList = GoGridLookupCatalog.getInstance(provider).getTable(GoGridLookupCatalog.DATACENTER);
 
-        if( cached != null ) {
-            return cached;
+        if( regionList.length() < 1 ) {
+            return null;
         }
-        GoGridMethod method = new GoGridMethod(provider);
-
-        method.get(GoGridMethod.LOOKUP_LIST, new GoGridMethod.Param("lookup", "loadbalancer.type"));
-        JSONArray regionList = method.get(GoGridMethod.LOOKUP_LIST, new GoGridMethod.Param("lookup", "datacenter"));
+        String key = (endpoint == null ? "" : endpoint);
+        RegionIndex index = regionIndexes.get(key);
 
-        if( regionList == null ) {
-            return Collections.emptyList();
+        if( index == null || index.source != regionList ) {
+            index = loadRegions(regionList);
+            regionIndexes.put(key, index);
         }
+        return index;
+    }
 
+    private @Nonnull RegionIndex loadRegions(@Nonnull JSONArray regionList) throws InternalException, CloudException {
         // {"summary":{"total":3,"start":0,"numpages":0,"returned":3},
         // "status":"success",
         // "method":"/common/lookup/list",
@@ -142,8 +209,7 @@ public class GoGridDC implements DataCenterServices {
                 throw new CloudException(e);
             }
         }
-        regionCache.put(ctx.getEndpoint(), Collections.unmodifiableList(regions));
-        return regions;
+        return new RegionIndex(regionList, regions);
     }
 
     private @Nullable Region toRegion(@Nullable JSONObject r) throws CloudException, InternalException {
@@ -0,0 +1,93 @@
+/**
+ * Copyright (C) 2012-2013 enStratus Networks Inc
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.gogrid;
+
+import org.dasein.cloud.CloudException;
+import org.dasein.cloud.InternalException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * A future that is completed from outside, typically by a background poller watching GoGrid for a state change.
+ * @param <T> the type of the result
+ * @version 2013.07 initial version
+ * @since 2013.07
+ */
+public class GoGridFuture<T> extends FutureTask<T> {
+    /**
+     * Waits for a future to complete, unwrapping any failure into the exception Dasein Cloud callers expect.
+     * @param future the future to wait on
+     * @param <T> the type of the result
+     * @return the result of the future
+     * @throws CloudException the operation failed in the cloud
+     * @throws InternalException the operation failed within Dasein Cloud or the wait was interrupted
+     */
+    static public @Nullable <T> T await(@Nonnull Future<T> future) throws CloudException, InternalException {
+        try {
+            return future.get();
+        }
+        catch( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new InternalException(e);
+        }
+        catch( ExecutionException e ) {
+            Throwable cause = e.getCause();
+
+            if( cause instanceof CloudException ) {
+                throw (CloudException)cause;
+            }
+            if( cause instanceof InternalException ) {
+                throw (InternalException)cause;
+            }
+            if( cause instanceof RuntimeException ) {
+                throw (RuntimeException)cause;
+            }
+            throw new InternalException(cause);
+        }
+    }
+
+    public GoGridFuture() {
+        super(new Callable<T>() {
+            public T call() throws Exception {
+                throw new IllegalStateException("A GoGridFuture is completed explicitly and never run");
+            }
+        });
+    }
+
+    /**
+     * Completes this future successfully. Has no effect if the future is already done.
+     * @param result the result
+     */
+    public void complete(@Nullable T result) {
+        set(result);
+    }
+
+    /**
+     * Completes this future with a failure. Has no effect if the future is already done.
+     * @param cause the reason for the failure
+     */
+    public void fail(@Nonnull Throwable cause) {
+        setException(cause);
+    }
+}
@@ -0,0 +1,382 @@
+/**
+ * Copyright (C) 2012-2013 enStratus Networks Inc
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.gogrid;
+
+import org.apache.log4j.Logger;
+import org.dasein.cloud.CloudException;
+import org.dasein.cloud.InternalException;
+import org.dasein.cloud.ProviderContext;
+import org.dasein.util.CalendarWrapper;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows the GoGrid jobs behind the asynchronous operations <code>SERVER_ADD</code>, <code>SERVER_DELETE</code>,
+ * and <code>LB_ADD</code>. GoGrid does not hand back a job ID from those calls, so a
+ * newly tracked operation is first matched to its job through one shared <code>JOB_LIST</code> call covering every
+ * operation still being looked for. From then on, all known jobs are followed with a single <code>JOB_GET</code>
+ * call per interval naming every job at once, so completion is detected from a few small job records rather than
+ * from full resource listings. Each job is polled with the provider that started it, so operations started
+ * through different providers for the same account are each followed with their own context.
+ * @version 2013.07 initial version
+ * @since 2013.07
+ */
+public class GoGridJobTracker {
+    static private final Logger logger = GoGrid.getLogger(GoGridJobTracker.class);
+
+    static public final int SUCCEEDED = 3;
+    static public final int FAILED    = 6;
+    static public final int CANCELED  = 7;
+
+    static private final long DISCOVERY_TIME = 2L * CalendarWrapper.MINUTE;
+    static private final long INTERVAL       = 5000L;
+
+    /**
+     * The command verb and object type of the job behind each trackable service, as GoGrid names them in job
+     * records.
+     */
+    static private final HashMap<String,String[]> commands = new HashMap<String, String[]>();
+
+    static {
+        commands.put(GoGridMethod.LB_ADD, new String[] { "create", "loadbalancer" });
+        commands.put(GoGridMethod.SERVER_ADD, new String[] { "create", "virtualserver" });
+        commands.put(GoGridMethod.SERVER_DELETE, new String[] { "delete", "virtualserver" });
+    }
+
+    static private final ConcurrentHashMap<String,GoGridJobTracker> trackers = new ConcurrentHashMap<String, GoGridJobTracker>();
+
+    /**
+     * Receives the outcome of a tracked job.
+     */
+    static public interface Listener {
+        /**
+         * Called when no job matching the operation showed up in time, in which case the caller should fall back
+         * to watching the resource itself.
+         */
+        public void untracked();
+
+        /**
+         * Called when the job failed or was canceled or did not finish in time.
+         * @param cause the reason for the failure
+         */
+        public void failed(@Nonnull CloudException cause);
+
+        /**
+         * Called when the job succeeded.
+         * @param job the final job record
+         */
+        public void succeeded(@Nonnull JSONObject job);
+    }
+
+    /**
+     * Provides the job tracker for the endpoint and account of the specified provider.
+     * @param provider the provider whose context identifies the account
+     * @return the job tracker for the account
+     * @throws CloudException no context was set for the provider
+     * @throws InternalException an error occurred within Dasein Cloud identifying the account
+     */
+    static public @Nonnull GoGridJobTracker getInstance(@Nonnull GoGrid provider) throws CloudException, InternalException {
+        ProviderContext ctx = provider.getContext();
+
+        if( ctx == null ) {
+            throw new CloudException("No context was provided for this request");
+        }
+        String key;
+
+        try {
+            key = ctx.getEndpoint() + "|" + new String(ctx.getAccessPublic(), "utf-8");
+        }
+        catch( UnsupportedEncodingException e ) {
+            e.printStackTrace();
+            throw new InternalException("UTF-8 not supported");
+        }
+        GoGridJobTracker tracker = trackers.get(key);
+
+        if( tracker == null ) {
+            tracker = new GoGridJobTracker();
+            GoGridJobTracker existing = trackers.putIfAbsent(key, tracker);
+
+            if( existing != null ) {
+                tracker = existing;
+            }
+        }
+        return tracker;
+    }
+
+    static private class Job {
+        public String   command;
+        public long     deadline;
+        public long     discoverBy;
+        public String   jobId;
+        public Listener listener;
+        public String   objectId;
+        public String   objectName;
+        public String   objectType;
+        public GoGrid   provider;
+        public long     startedAt;
+    }
+
+    private final ArrayList<Job> jobs = new ArrayList<Job>();
+    private boolean              scheduled;
+
+    private GoGridJobTracker() { }
+
+    /**
+     * Tracks the job behind an operation that was just issued, matching it by the kind of operation, the type of
+     * object it acts on, and the ID or name of that object.
+     * @param provider the provider to poll GoGrid with
+     * @param service the service that started the operation, one of <code>SERVER_ADD</code>,
+     * <code>SERVER_DELETE</code>, or <code>LB_ADD</code>
+     * @param objectId the ID of the object the operation acts on, if known
+     * @param objectName the name of the object the operation acts on, if known
+     * @param timeout the maximum time in milliseconds to wait for the job to finish
+     * @param listener the listener to notify of the outcome
+     * @throws InternalException the service is not one whose jobs can be tracked
+     */
+    public synchronized void track(@Nonnull GoGrid provider, @Nonnull String service, @Nullable String objectId, @Nullable String objectName, long timeout, @Nonnull Listener listener) throws InternalException {
+        String[] command = commands.get(service);
+
+        if( command == null ) {
+            throw new InternalException("Jobs are not tracked for " + service);
+        }
+        Job job = new Job();
+
+        job.command = command[0];
+        job.objectType = command[1];
+        job.objectId = objectId;
+        job.objectName = objectName;
+        job.listener = listener;
+        job.startedAt = System.currentTimeMillis();
+        job.discoverBy = job.startedAt + DISCOVERY_TIME;
+        job.deadline = job.startedAt + timeout;
+        job.provider = provider;
+        jobs.add(job);
+        if( !scheduled ) {
+            schedule();
+        }
+    }
+
+    private void schedule() {
+        scheduled = true;
+        GoGridThreads.getScheduler().schedule(new Runnable() {
+            public void run() {
+                GoGridThreads.getWorkers().submit(new Runnable() {
+                    public void run() {
+                        poll();
+                    }
+                });
+            }
+        }, INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    private void poll() {
+        ArrayList<Job> pending;
+
+        synchronized( this ) {
+            pending = new ArrayList<Job>(jobs);
+        }
+        IdentityHashMap<GoGrid,ArrayList<Job>> byProvider = new IdentityHashMap<GoGrid, ArrayList<Job>>();
+
+        for( Job job : pending ) {
+            ArrayList<Job> list = byProvider.get(job.provider);
+
+            if( list == null ) {
+                list = new ArrayList<Job>();
+                byProvider.put(job.provider, list);
+            }
+            list.add(job);
+        }
+        ArrayList<Job> done = new ArrayList<Job>();
+
+        for( Map.Entry<GoGrid,ArrayList<Job>> entry : byProvider.entrySet() ) {
+            try {
+                discover(entry.getKey(), entry.getValue());
+                check(entry.getKey(), entry.getValue(), done);
+            }
+            catch( Throwable t ) {
+                logger.warn("Unable to poll GoGrid jobs: " + t.getMessage());
+            }
+        }
+        long now = System.currentTimeMillis();
+
+        for( Job job : pending ) {
+            if( done.contains(job) ) {
+                continue;
+            }
+            if( job.jobId == null && job.discoverBy < now ) {
+                if( logger.isDebugEnabled() ) {
+                    logger.debug("No job found for " + job.command + " of " + (job.objectId == null ? job.objectName : job.objectId));
+                }
+                done.add(job);
+                finish(job, null, null);
+            }
+            else if( job.deadline < now ) {
+                done.add(job);
+                finish(job, null, new CloudException("System timed out waiting for job " + job.jobId));
+            }
+        }
+        synchronized( this ) {
+            jobs.removeAll(done);
+            if( jobs.isEmpty() ) {
+                scheduled = false;
+            }
+            else {
+                schedule();
+            }
+        }
+    }
+
+    private void discover(@Nonnull GoGrid p, @Nonnull ArrayList<Job> pending) throws CloudException, InternalException {
+        final ArrayList<Job> unknown = new ArrayList<Job>();
+        final HashSet<String> known = new HashSet<String>();
+        long since = Long.MAX_VALUE;
+
+        for( Job job : pending ) {
+            if( job.jobId == null ) {
+                unknown.add(job);
+                since = Math.min(since, job.startedAt);
+            }
+            else {
+                known.add(job.jobId);
+            }
+        }
+        if( unknown.isEmpty() ) {
+            return;
+        }
+        GoGridMethod method = new GoGridMethod(p);
+
+        method.stream(GoGridMethod.JOB_LIST, new GoGridMethod.ItemHandler() {
+            public boolean handle(@Nonnull JSONObject item) throws CloudException {
+                try {
+                    if( !item.has("id") || !item.has("command") || !item.has("objecttype") || !item.has("detail") ) {
+                        return true;
+                    }
+                    String jobId = item.getString("id");
+
+                    if( known.contains(jobId) ) {
+                        return true;
+                    }
+                    String command = item.getJSONObject("command").getString("name").toLowerCase(Locale.ENGLISH);
+                    String type = item.getJSONObject("objecttype").getString("name").replace(" ", "").toLowerCase(Locale.ENGLISH);
+                    JSONObject detail = item.getJSONObject("detail");
+                    String id = (detail.has("id") ? detail.getString("id") : null);
+                    String name = (detail.has("name") ? detail.getString("name") : null);
+
+                    for( Job job : unknown ) {
+                        if( job.jobId != null || !command.contains(job.command) || !type.equals(job.objectType) ) {
+                            continue;
+                        }
+                        if( (job.objectId != null && job.objectId.equals(id)) || (job.objectName != null && job.objectName.equalsIgnoreCase(name)) ) {
+                            if( logger.isDebugEnabled() ) {
+                                logger.debug("Tracking job " + jobId + " for " + command);
+                            }
+                            job.jobId = jobId;
+                            known.add(jobId);
+                            break;
+                        }
+                    }
+                }
+                catch( JSONException e ) {
+                    logger.error("Failed to parse JSON: " + e.getMessage());
+                    e.printStackTrace();
+                    throw new CloudException(e);
+                }
+                return true;
+            }
+        }, new GoGridMethod.Param("startdate", String.valueOf(since - CalendarWrapper.MINUTE)));
+    }
+
+    private void check(@Nonnull GoGrid p, @Nonnull ArrayList<Job> pending, @Nonnull ArrayList<Job> done) throws CloudException, InternalException {
+        HashMap<String,Job> byId = new HashMap<String, Job>();
+        ArrayList<GoGridMethod.Param> params = new ArrayList<GoGridMethod.Param>();
+
+        for( Job job : pending ) {
+            if( job.jobId != null ) {
+                byId.put(job.jobId, job);
+                params.add(new GoGridMethod.Param("job", job.jobId));
+            }
+        }
+        if( params.isEmpty() ) {
+            return;
+        }
+        GoGridMethod method = new GoGridMethod(p);
+        JSONArray list = method.get(GoGridMethod.JOB_GET, params.toArray(new GoGridMethod.Param[params.size()]));
+
+        if( list == null ) {
+            return;
+        }
+        for( int i=0; i<list.length(); i++ ) {
+            try {
+                JSONObject item = list.getJSONObject(i);
+                Job job = (item.has("id") ? byId.get(item.getString("id")) : null);
+
+                if( job == null || !item.has("currentstate") ) {
+                    continue;
+                }
+                JSONObject state = item.getJSONObject("currentstate");
+
+                switch( state.getInt("id") ) {
+                    case SUCCEEDED:
+                        done.add(job);
+                        finish(job, item, null);
+                        break;
+                    case FAILED: case CANCELED:
+                        done.add(job);
+                        finish(job, null, new CloudException("Job " + job.jobId + " ended in state " + (state.has("name") ? state.getString("name") : state.getInt("id"))));
+                        break;
+                }
+            }
+            catch( JSONException e ) {
+                logger.error("Failed to parse JSON: " + e.getMessage());
+                e.printStackTrace();
+                throw new CloudException(e);
+            }
+        }
+    }
+
+    private void finish(@Nonnull Job job, @Nullable JSONObject result, @Nullable CloudException error) {
+        try {
+            if( error != null ) {
+                job.listener.failed(error);
+            }
+            else if( result != null ) {
+                job.listener.succeeded(result);
+            }
+            else {
+                job.listener.untracked();
+            }
+        }
+        catch( Throwable t ) {
+            logger.error("Job listener failed: " + t.getMessage());
+        }
+    }
+}
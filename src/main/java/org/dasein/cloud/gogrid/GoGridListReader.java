@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2012-2013 enStratus Networks Inc
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.gogrid;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Reader;
+
+/**
+ * Walks the <code>list</code> array of a GoGrid API response one element at a time without building a tree
+ * for the response as a whole. Any other top-level members (<code>summary</code>, <code>status</code>, and so on)
+ * are parsed and discarded as they are encountered.
+ * @version 2013.07 initial version
+ * @since 2013.07
+ */
+public class GoGridListReader {
+    private boolean     done;
+    private boolean     found;
+    private boolean     inList;
+    private boolean     opened;
+    private JSONTokener tokener;
+
+    public GoGridListReader(@Nonnull Reader reader) {
+        tokener = new JSONTokener(reader);
+    }
+
+    public GoGridListReader(@Nonnull String json) {
+        tokener = new JSONTokener(json);
+    }
+
+    /**
+     * Indicates whether the response carried a <code>list</code> member. This is known only once {@link #next()}
+     * has returned an element or <code>null</code>.
+     * @return <code>true</code> if a <code>list</code> array was found, even an empty one
+     */
+    public boolean isListPresent() {
+        return found;
+    }
+
+    /**
+     * Reads the next element from the <code>list</code> array.
+     * @return the next element or <code>null</code> if the list has been exhausted or was not present
+     * @throws JSONException the response was not valid JSON or the list contained something other than objects
+     */
+    public @Nullable JSONObject next() throws JSONException {
+        if( done ) {
+            return null;
+        }
+        if( !opened ) {
+            opened = true;
+            if( tokener.nextClean() != '{' ) {
+                throw tokener.syntaxError("A GoGrid response must begin with '{'");
+            }
+        }
+        if( !inList && !seekList() ) {
+            done = true;
+            return null;
+        }
+        Object value = tokener.nextValue();
+
+        if( !(value instanceof JSONObject) ) {
+            throw tokener.syntaxError("Expected an object in the list, found " + value);
+        }
+        switch( tokener.nextClean() ) {
+            case ',': break;
+            case ']': done = true; break;
+            default: throw tokener.syntaxError("Expected ',' or ']'");
+        }
+        return (JSONObject)value;
+    }
+
+    private boolean seekList() throws JSONException {
+        while( true ) {
+            char c = tokener.nextClean();
+
+            if( c == '}' || c == 0 ) {
+                return false;
+            }
+            if( c == ',' ) {
+                continue;
+            }
+            tokener.back();
+            String key = tokener.nextValue().toString();
+
+            if( tokener.nextClean() != ':' ) {
+                throw tokener.syntaxError("Expected ':' after " + key);
+            }
+            if( key.equals("list") ) {
+                found = true;
+                if( tokener.nextClean() != '[' ) {
+                    throw tokener.syntaxError("Expected the list to be an array");
+                }
+                if( tokener.nextClean() == ']' ) {
+                    return false;
+                }
+                tokener.back();
+                inList = true;
+                return true;
+            }
+            tokener.nextValue();
+        }
+    }
+}
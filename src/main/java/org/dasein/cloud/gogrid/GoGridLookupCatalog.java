@@ -0,0 +1,173 @@
+/**
+ * Copyright (C) 2012-2013 enStratus Networks Inc
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.gogrid;
+
+import org.apache.log4j.Logger;
+import org.dasein.cloud.CloudException;
+import org.dasein.cloud.InternalException;
+import org.dasein.cloud.ProviderContext;
+import org.dasein.util.CalendarWrapper;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * The GoGrid lookup tables this provider consults for a single endpoint, fetched in parallel on first use and then
+ * served from memory. Once a catalog is older than its refresh interval, the next access triggers a reload in the
+ * background while readers continue to see the previous catalog. Lookup tables describe the endpoint rather than
+ * an account, so catalogs are shared by every account on an endpoint and each load or reload is made with the
+ * credentials of whichever caller triggered it.
+ * @version 2013.07 initial version
+ * @since 2013.07
+ */
+public class GoGridLookupCatalog {
+    static private final Logger logger = GoGrid.getLogger(GoGridLookupCatalog.class);
+
+    static public final String DATACENTER              = "datacenter";
+    static public final String IP_DATACENTER           = "ip.datacenter";
+    static public final String LOADBALANCER_DATACENTER = "loadbalancer.datacenter";
+    static public final String SERVER_DATACENTER       = "server.datacenter";
+    static public final String SERVER_RAM              = "server.ram";
+
+    static private final String[] TABLES = {
+            DATACENTER, IP_DATACENTER, LOADBALANCER_DATACENTER, SERVER_DATACENTER, SERVER_RAM
+    };
+
+    static private final GoGridCache<GoGridLookupCatalog> catalogs = new GoGridCache<GoGridLookupCatalog>(100, 6 * CalendarWrapper.HOUR, CalendarWrapper.HOUR);
+
+    /**
+     * Provides the catalog for the endpoint of the specified provider, loading it if this is the first use.
+     * @param provider the provider whose context identifies the endpoint and whose credentials are used for any
+     * load or background refresh this call triggers
+     * @return the lookup catalog for the endpoint
+     * @throws CloudException an error occurred loading the lookup tables from GoGrid
+     * @throws InternalException an error occurred within Dasein Cloud loading the lookup tables
+     */
+    static public @Nonnull GoGridLookupCatalog getInstance(@Nonnull final GoGrid provider) throws CloudException, InternalException {
+        ProviderContext ctx = provider.getContext();
+
+        if( ctx == null ) {
+            throw new CloudException("No context was set for this request");
+        }
+        String endpoint = ctx.getEndpoint();
+
+        GoGridLookupCatalog catalog = catalogs.get(endpoint == null ? "" : endpoint, new GoGridCache.Loader<GoGridLookupCatalog>() {
+            public @Nonnull GoGridLookupCatalog load() throws CloudException, InternalException {
+                return new GoGridLookupCatalog(loadTables(provider));
+            }
+        });
+
+        if( catalog == null ) {
+            throw new CloudException("Unable to load the GoGrid lookup tables");
+        }
+        return catalog;
+    }
+
+    private final Map<String,JSONArray> tables;
+
+    private GoGridLookupCatalog(@Nonnull Map<String,JSONArray> tables) {
+        this.tables = tables;
+    }
+
+    /**
+     * Indicates whether the specified lookup table has an option with the specified ID.
+     * @param table the name of the lookup table
+     * @param id the option ID to check for
+     * @return true if the option exists
+     * @throws CloudException the lookup table contained invalid data
+     */
+    public boolean contains(@Nonnull String table, @Nonnull String id) throws CloudException {
+        JSONArray list = getTable(table);
+
+        for( int i=0; i<list.length(); i++ ) {
+            try {
+                JSONObject option = list.getJSONObject(i);
+
+                if( option.has("id") && id.equals(option.getString("id")) ) {
+                    return true;
+                }
+            }
+            catch( JSONException e ) {
+                logger.error("Invalid lookup data from GoGrid: " + e.getMessage());
+                e.printStackTrace();
+                throw new CloudException(e);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param table the name of the lookup table
+     * @return the options in the lookup table, which may be empty if GoGrid has no such table
+     */
+    public @Nonnull JSONArray getTable(@Nonnull String table) {
+        JSONArray list = tables.get(table);
+
+        return (list == null ? new JSONArray() : list);
+    }
+
+    static private @Nonnull Map<String,JSONArray> loadTables(@Nonnull final GoGrid provider) throws CloudException, InternalException {
+        List<Future<JSONArray>> results = new ArrayList<Future<JSONArray>>();
+
+        for( final String table : TABLES ) {
+            results.add(GoGridThreads.getWorkers().submit(new Callable<JSONArray>() {
+                public JSONArray call() throws CloudException, InternalException {
+                    return new GoGridMethod(provider).get(GoGridMethod.LOOKUP_LIST, new GoGridMethod.Param("lookup", table));
+                }
+            }));
+        }
+        HashMap<String,JSONArray> loaded = new HashMap<String, JSONArray>();
+
+        for( int i=0; i<TABLES.length; i++ ) {
+            try {
+                JSONArray list = results.get(i).get();
+
+                if( list != null ) {
+                    loaded.put(TABLES[i], list);
+                }
+            }
+            catch( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+                throw new InternalException(e);
+            }
+            catch( ExecutionException e ) {
+                Throwable cause = e.getCause();
+
+                if( cause instanceof CloudException ) {
+                    throw (CloudException)cause;
+                }
+                if( cause instanceof InternalException ) {
+                    throw (InternalException)cause;
+                }
+                throw new InternalException(cause);
+            }
+        }
+        return Collections.unmodifiableMap(loaded);
+    }
+}
@@ -26,7 +26,10 @@ import org.apache.http.HttpVersion;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.conn.params.ConnRoutePNames;
+import org.apache.http.entity.ContentType;
 import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
 import org.apache.http.params.BasicHttpParams;
 import org.apache.http.params.HttpParams;
 import org.apache.http.params.HttpProtocolParams;
@@ -44,13 +47,23 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
+import java.net.URI;
 import java.net.URLEncoder;
+import java.nio.charset.Charset;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.Properties;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Represents the interaction point between Dasein Cloud and the underlying REST API.
@@ -91,6 +104,8 @@ public class GoGridMethod {
     static public final String IMAGE_LIST        = "/api/grid/image/list";
     static public final String IMAGE_SAVE        = "/api/grid/image/save";
     static public final String IP_LIST           = "/api/grid/ip/list";
+    static public final String JOB_GET           = "/api/grid/job/get";
+    static public final String JOB_LIST          = "/api/grid/job/list";
     static public final String LB_ADD            = "/api/grid/loadbalancer/add";
     static public final String LB_DELETE         = "/api/grid/loadbalancer/delete";
     static public final String LB_EDIT           = "/api/grid/loadbalancer/edit";
@@ -108,6 +123,58 @@ public class GoGridMethod {
     static private final Logger logger = GoGrid.getLogger(GoGridMethod.class);
     static private final Logger wire = GoGrid.getWireLogger(GoGridMethod.class);
 
+    /**
+     * Custom property for the maximum number of pooled connections to a single GoGrid host (default 20).
+     */
+    static public final String MAX_CONNECTIONS_PER_ROUTE = "maxConnectionsPerRoute";
+
+    /**
+     * Custom property for the maximum number of pooled connections across all hosts for one endpoint (default 50).
+     */
+    static public final String MAX_CONNECTIONS = "maxConnections";
+
+    /**
+     * Custom property for the number of seconds a pooled connection may sit idle before it is closed (default 30).
+     */
+    static public final String IDLE_CONNECTION_TIMEOUT = "idleConnectionTimeout";
+
+    static private final int  DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 20;
+    static private final int  DEFAULT_MAX_CONNECTIONS           = 50;
+    static private final long DEFAULT_IDLE_CONNECTION_TIMEOUT   = 30L;
+
+    static private class PooledClient {
+        public HttpClient                     client;
+        public PoolingClientConnectionManager manager;
+        public long                           idleTimeout;
+    }
+
+    static private final ConcurrentHashMap<String,PooledClient> clients = new ConcurrentHashMap<String, PooledClient>();
+
+    static private Timer reaper;
+
+    static private final ConcurrentHashMap<String,FutureTask<JSONArray>> inFlight = new ConcurrentHashMap<String, FutureTask<JSONArray>>();
+
+    static private synchronized void startReaper() {
+        if( reaper != null ) {
+            return;
+        }
+        reaper = new Timer("GoGrid idle connection reaper", true);
+        reaper.schedule(new TimerTask() {
+            @Override
+            public void run() {
+                for( PooledClient pooled : clients.values() ) {
+                    try {
+                        pooled.manager.closeExpiredConnections();
+                        pooled.manager.closeIdleConnections(pooled.idleTimeout, TimeUnit.SECONDS);
+                    }
+                    catch( Throwable t ) {
+                        logger.warn("Failed to evict idle connections: " + t.getMessage());
+                    }
+                }
+            }
+        }, 5000L, 5000L);
+    }
+
     /**
      * {"summary":{"total":24,"start":0,"numpages":0,"returned":24},"status":"success","method":"/common/lookup/list",
      * "list":[{"id":1,"description":"Load Balancer Types","name":"loadbalancer.type","object":"option"},
@@ -139,7 +206,302 @@ public class GoGridMethod {
 
     public GoGridMethod(@Nonnull GoGrid provider) { this.provider = provider; }
 
-    public @Nullable JSONArray get(@Nonnull String service, @Nullable Param ... params) throws CloudException, InternalException {
+    /**
+     * Receives the elements of a listing one at a time as they are read off the wire.
+     */
+    static public interface ItemHandler {
+        /**
+         * Handles the next element of the <code>list</code> array.
+         * @param item the element
+         * @return <code>true</code> to continue reading, <code>false</code> to stop processing the listing
+         * @throws CloudException an error occurred interpreting the element
+         * @throws InternalException an error occurred within Dasein Cloud handling the element
+         */
+        public boolean handle(@Nonnull JSONObject item) throws CloudException, InternalException;
+    }
+
+    /**
+     * Receives selected fields of the elements of a listing one at a time as they are read off the wire.
+     */
+    static public interface ProjectionHandler {
+        /**
+         * Handles the requested fields of the next element of the <code>list</code> array.
+         * @param values the value of each requested field in the order requested, <code>null</code> where absent
+         * @return <code>true</code> to continue reading, <code>false</code> to stop processing the listing
+         * @throws CloudException an error occurred interpreting the element
+         * @throws InternalException an error occurred within Dasein Cloud handling the element
+         */
+        public boolean handle(@Nonnull String[] values) throws CloudException, InternalException;
+    }
+
+    /**
+     * Reads the entity of a successful response. A reader that stops before the end of the entity aborts the
+     * request rather than leaving the rest of the body to be downloaded just to release the connection.
+     */
+    static private interface EntityReader<T> {
+        public @Nullable T read(@Nonnull HttpEntity entity, @Nonnull HttpGet request) throws CloudException, InternalException, IOException, JSONException;
+    }
+
+    /**
+     * Executes a call against the GoGrid API and returns the resulting <code>list</code>. Responses from cacheable
+     * services and from identical calls already in flight are shared between callers, so the returned array must
+     * be treated as read-only.
+     * @param service the service to call
+     * @param params the parameters for the call
+     * @return the listing returned by GoGrid, or <code>null</code> if GoGrid returned no listing
+     * @throws CloudException an error occurred with the request or in processing the response
+     * @throws InternalException an error occurred within Dasein Cloud while processing the request
+     */
+    public @Nullable JSONArray get(@Nonnull final String service, @Nullable final Param ... params) throws CloudException, InternalException {
+        final String cacheKey = getCacheKey(service, params);
+
+        if( cacheKey != null ) {
+            JSONArray cached = GoGridResponseCache.get(cacheKey);
+
+            if( cached != null ) {
+                return cached;
+            }
+        }
+        Callable<JSONArray> call = new Callable<JSONArray>() {
+            public @Nullable JSONArray call() throws CloudException, InternalException {
+                long generation = (cacheKey == null ? 0L : GoGridResponseCache.getGeneration(getScope(), service));
+                JSONArray list = invoke(service, params, new EntityReader<JSONArray>() {
+                    public @Nullable JSONArray read(@Nonnull HttpEntity entity, @Nonnull HttpGet request) throws IOException, JSONException {
+                        String json = EntityUtils.toString(entity);
+
+                        if( wire.isDebugEnabled() ) {
+                            wire.debug(json);
+                        }
+                        JSONObject r = new JSONObject(json);
+
+                        return r.getJSONArray("list");
+                    }
+                });
+
+                if( cacheKey != null && list != null ) {
+                    GoGridResponseCache.put(cacheKey, getScope(), service, list, generation);
+                }
+                return list;
+            }
+        };
+
+        if( isReadOnly(service) ) {
+            return coalesce(GoGridResponseCache.toKey(getScope(), service, params), call);
+        }
+        try {
+            return call.call();
+        }
+        catch( CloudException e ) {
+            throw e;
+        }
+        catch( InternalException e ) {
+            throw e;
+        }
+        catch( Exception e ) {
+            throw new InternalException(e);
+        }
+    }
+
+    /**
+     * Executes a call against the GoGrid API and streams the elements of the resulting <code>list</code> to the
+     * specified handler without ever holding the full response in memory. When response caching is enabled and the
+     * service is cacheable, or when an identical call is already in flight, the listing is instead loaded in full
+     * through {@link #get(String, Param...)} and then replayed to the handler. A handler that stops early aborts
+     * the request, so the remainder of the listing is never downloaded.
+     * @param service the service to call
+     * @param handler the handler to receive each element in the listing
+     * @param params the parameters for the call
+     * @return <code>false</code> if GoGrid returned no response or a response without a <code>list</code> member,
+     * <code>true</code> otherwise, including for an empty list
+     * @throws CloudException an error occurred with the request or in processing the response
+     * @throws InternalException an error occurred within Dasein Cloud while processing the request
+     */
+    public boolean stream(@Nonnull String service, @Nonnull final ItemHandler handler, @Nullable Param ... params) throws CloudException, InternalException {
+        if( getCacheKey(service, params) != null || inFlight.containsKey(GoGridResponseCache.toKey(getScope(), service, params)) ) {
+            JSONArray list = get(service, params);
+
+            if( list == null ) {
+                return false;
+            }
+            try {
+                for( int i=0; i<list.length(); i++ ) {
+                    if( !handler.handle(list.getJSONObject(i)) ) {
+                        break;
+                    }
+                }
+            }
+            catch( JSONException e ) {
+                logger.error("Invalid JSON from cloud: " + e.getMessage());
+                e.printStackTrace();
+                throw new CloudException(e);
+            }
+            return true;
+        }
+        Boolean found = invoke(service, params, new EntityReader<Boolean>() {
+            public @Nonnull Boolean read(@Nonnull HttpEntity entity, @Nonnull HttpGet request) throws CloudException, InternalException, IOException, JSONException {
+                ContentType type = ContentType.get(entity);
+                Charset charset = (type == null ? null : type.getCharset());
+                GoGridListReader reader = new GoGridListReader(new InputStreamReader(entity.getContent(), charset == null ? Charset.forName("utf-8") : charset));
+                JSONObject item;
+
+                while( (item = reader.next()) != null ) {
+                    if( wire.isDebugEnabled() ) {
+                        wire.debug(item.toString());
+                    }
+                    if( !handler.handle(item) ) {
+                        request.abort();
+                        break;
+                    }
+                }
+                return reader.isListPresent();
+            }
+        });
+
+        return (found != null && found);
+    }
+
+    /**
+     * Executes a call against the GoGrid API and hands only the specified fields of each element in the resulting
+     * <code>list</code> to the handler. Fields are named by dotted paths such as <code>state.id</code>, and the
+     * rest of each element is skipped over on the wire without being parsed into JSON objects. Cached and
+     * in-flight calls are replayed from the full listing as with {@link #stream(String, ItemHandler, Param...)}.
+     * @param service the service to call
+     * @param fields the dotted paths of the fields to extract from each element
+     * @param handler the handler to receive the fields of each element in the listing
+     * @param params the parameters for the call
+     * @return <code>false</code> if GoGrid returned no listing at all, <code>true</code> otherwise
+     * @throws CloudException an error occurred with the request or in processing the response
+     * @throws InternalException an error occurred within Dasein Cloud while processing the request
+     */
+    public boolean project(@Nonnull String service, @Nonnull final String[] fields, @Nonnull final ProjectionHandler handler, @Nullable Param ... params) throws CloudException, InternalException {
+        if( getCacheKey(service, params) != null || inFlight.containsKey(GoGridResponseCache.toKey(getScope(), service, params)) ) {
+            JSONArray list = get(service, params);
+
+            if( list == null ) {
+                return false;
+            }
+            try {
+                for( int i=0; i<list.length(); i++ ) {
+                    if( !handler.handle(GoGridProjectionReader.extract(list.getJSONObject(i), fields)) ) {
+                        break;
+                    }
+                }
+            }
+            catch( JSONException e ) {
+                logger.error("Invalid JSON from cloud: " + e.getMessage());
+                e.printStackTrace();
+                throw new CloudException(e);
+            }
+            return true;
+        }
+        Boolean found = invoke(service, params, new EntityReader<Boolean>() {
+            public @Nonnull Boolean read(@Nonnull HttpEntity entity, @Nonnull HttpGet request) throws CloudException, InternalException, IOException, JSONException {
+                ContentType type = ContentType.get(entity);
+                Charset charset = (type == null ? null : type.getCharset());
+                GoGridProjectionReader reader = new GoGridProjectionReader(new InputStreamReader(entity.getContent(), charset == null ? Charset.forName("utf-8") : charset), fields);
+                String[] values;
+
+                while( (values = reader.next()) != null ) {
+                    if( wire.isDebugEnabled() ) {
+                        wire.debug(Arrays.toString(values));
+                    }
+                    if( !handler.handle(values) ) {
+                        request.abort();
+                        break;
+                    }
+                }
+                return true;
+            }
+        });
+
+        return (found != null && found);
+    }
+
+    static private boolean isReadOnly(@Nonnull String service) {
+        return (service.endsWith("/list") || service.endsWith("/get"));
+    }
+
+    /**
+     * Runs the specified call unless an identical call is already in flight, in which case this thread waits for
+     * and shares the result of the in-flight call.
+     * @param key the key identifying identical calls
+     * @param call the call to execute
+     * @return the result of the call
+     * @throws CloudException the shared call failed in the cloud
+     * @throws InternalException the shared call failed within Dasein Cloud
+     */
+    private @Nullable JSONArray coalesce(@Nonnull String key, @Nonnull Callable<JSONArray> call) throws CloudException, InternalException {
+        FutureTask<JSONArray> task = new FutureTask<JSONArray>(call);
+        FutureTask<JSONArray> current = inFlight.putIfAbsent(key, task);
+
+        if( current == null ) {
+            try {
+                task.run();
+            }
+            finally {
+                inFlight.remove(key, task);
+            }
+            current = task;
+        }
+        else if( logger.isDebugEnabled() ) {
+            logger.debug("Joining in-flight request " + key);
+        }
+        try {
+            return current.get();
+        }
+        catch( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new InternalException(e);
+        }
+        catch( ExecutionException e ) {
+            Throwable cause = e.getCause();
+
+            if( cause instanceof CloudException ) {
+                throw (CloudException)cause;
+            }
+            if( cause instanceof InternalException ) {
+                throw (InternalException)cause;
+            }
+            if( cause instanceof RuntimeException ) {
+                throw (RuntimeException)cause;
+            }
+            throw new InternalException(cause);
+        }
+    }
+
+    private @Nullable String getCacheKey(@Nonnull String service, @Nullable Param[] params) throws CloudException, InternalException {
+        if( !GoGridResponseCache.isCacheable(service) ) {
+            return null;
+        }
+        ProviderContext ctx = provider.getContext();
+
+        if( ctx == null ) {
+            return null;
+        }
+        Properties p = ctx.getCustomProperties();
+
+        if( p == null || !"true".equalsIgnoreCase(p.getProperty(GoGridResponseCache.RESPONSE_CACHE)) ) {
+            return null;
+        }
+        return GoGridResponseCache.toKey(getScope(), service, params);
+    }
+
+    private @Nonnull String getScope() throws CloudException, InternalException {
+        ProviderContext ctx = provider.getContext();
+
+        if( ctx == null ) {
+            throw new CloudException("No context was set for this request");
+        }
+        try {
+            return ctx.getEndpoint() + "|" + new String(ctx.getAccessPublic(), "utf-8");
+        }
+        catch( UnsupportedEncodingException e ) {
+            e.printStackTrace();
+            throw new InternalException("UTF-8 not supported");
+        }
+    }
+
+    private @Nullable <T> T invoke(@Nonnull String service, @Nullable Param[] params, @Nonnull EntityReader<T> reader) throws CloudException, InternalException {
         if( logger.isTraceEnabled() ) {
             logger.trace("ENTER - " + GoGrid.class.getName() + ".get(" + service + "," + Arrays.toString(params) + ")");
         }
@@ -180,7 +542,7 @@ public class GoGridMethod {
                 logger.debug("Param string=" + paramString);
             }
             HttpGet get = new HttpGet(endpoint + paramString);
-            HttpClient client = getClient(ctx, endpoint.startsWith("https"));
+            HttpClient client = getClient(ctx, endpoint);
 
             if( wire.isDebugEnabled() ) {
                 wire.debug(get.getRequestLine().toString());
@@ -200,49 +562,62 @@ public class GoGridMethod {
             catch( IOException e ) {
                 logger.error("I/O error from server communications: " + e.getMessage());
                 e.printStackTrace();
+                get.abort();
                 throw new InternalException(e);
             }
-            int status = response.getStatusLine().getStatusCode();
-
-            if( status == HttpServletResponse.SC_NOT_FOUND ) {
-                return null;
-            }
-            if( status == HttpServletResponse.SC_OK ) {
-                HttpEntity entity = response.getEntity();
-                String json;
+            try {
+                int status = response.getStatusLine().getStatusCode();
 
-                if( entity == null ) {
+                if( status == HttpServletResponse.SC_NOT_FOUND ) {
                     return null;
                 }
-                try {
-                    json = EntityUtils.toString(entity);
-                    if( wire.isDebugEnabled() ) {
-                        wire.debug(json);
-                    }
-                }
-                catch( IOException e ) {
-                    logger.error("Failed to read JSON entity");
-                    e.printStackTrace();
-                    throw new CloudException(e);
-                }
-                try {
-                    JSONObject r = new JSONObject(json);
+                if( status == HttpServletResponse.SC_OK ) {
+                    HttpEntity entity = response.getEntity();
 
-                    return r.getJSONArray("list");
+                    if( GoGridResponseCache.isMutation(service) ) {
+                        GoGridResponseCache.invalidate(getScope(), service);
+                    }
+                    if( entity == null ) {
+                        return null;
+                    }
+                    try {
+                        return reader.read(entity, get);
+                    }
+                    catch( CloudException e ) {
+                        get.abort();
+                        throw e;
+                    }
+                    catch( InternalException e ) {
+                        get.abort();
+                        throw e;
+                    }
+                    catch( RuntimeException e ) {
+                        get.abort();
+                        throw e;
+                    }
+                    catch( IOException e ) {
+                        logger.error("Failed to read JSON entity");
+                        e.printStackTrace();
+                        get.abort();
+                        throw new CloudException(e);
+                    }
+                    catch( JSONException e ) {
+                        logger.error("Invalid JSON from cloud: " + e.getMessage());
+                        e.printStackTrace();
+                        get.abort();
+                        throw new CloudException(e);
+                    }
                 }
-                catch( JSONException e ) {
-                    logger.error("Invalid JSON from cloud: " + e.getMessage());
-                    e.printStackTrace();
-                    throw new CloudException(e);
+                else if( status == 400 && service.endsWith("get") ) {
+                    return null;
                 }
+                throw new GoGridException(new GoGridException.ParsedException(response));
             }
-            else if( status == HttpServletResponse.SC_NOT_FOUND ) {
-                return null;
-            }
-            else if( status == 400 && service.endsWith("get") ) {
-                return null;
+            finally {
+                if( !get.isAborted() ) {
+                    release(response);
+                }
             }
-            throw new GoGridException(new GoGridException.ParsedException(response));
         }
         finally {
             if( logger.isTraceEnabled() ) {
@@ -255,30 +630,88 @@ public class GoGridMethod {
         }
     }
 
-    private @Nonnull HttpClient getClient(@Nonnull ProviderContext ctx, boolean ssl) {
+    private @Nonnull HttpClient getClient(@Nonnull ProviderContext ctx, @Nonnull String endpoint) throws InternalException {
+        Properties p = ctx.getCustomProperties();
+        String proxyHost = null;
+        int proxyPort = 0;
+        int maxPerRoute = DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+        int maxTotal = DEFAULT_MAX_CONNECTIONS;
+        long idleTimeout = DEFAULT_IDLE_CONNECTION_TIMEOUT;
+
+        if( p != null ) {
+            proxyHost = p.getProperty("proxyHost");
+            if( proxyHost != null ) {
+                String port = p.getProperty("proxyPort");
+
+                if( port != null && port.length() > 0 ) {
+                    proxyPort = Integer.parseInt(port);
+                }
+            }
+            maxPerRoute = getIntProperty(p, MAX_CONNECTIONS_PER_ROUTE, maxPerRoute);
+            maxTotal = getIntProperty(p, MAX_CONNECTIONS, maxTotal);
+            idleTimeout = getIntProperty(p, IDLE_CONNECTION_TIMEOUT, (int)idleTimeout);
+        }
+        URI uri;
+
+        try {
+            uri = new URI(endpoint);
+        }
+        catch( Exception e ) {
+            logger.error("Invalid endpoint " + endpoint + ": " + e.getMessage());
+            throw new InternalException(e);
+        }
+        boolean ssl = "https".equalsIgnoreCase(uri.getScheme());
+        String key = uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort() + "|" + proxyHost + ":" + proxyPort + "|" + maxPerRoute + "/" + maxTotal + "/" + idleTimeout;
+        PooledClient pooled = clients.get(key);
+
+        if( pooled != null ) {
+            return pooled.client;
+        }
         HttpParams params = new BasicHttpParams();
 
         HttpProtocolParams.setVersion(params, HttpVersion.HTTP_1_1);
         //noinspection deprecation
         HttpProtocolParams.setContentCharset(params, HTTP.UTF_8);
         HttpProtocolParams.setUserAgent(params, "Dasein Cloud");
+        if( proxyHost != null ) {
+            params.setParameter(ConnRoutePNames.DEFAULT_PROXY, new HttpHost(proxyHost, proxyPort, ssl ? "https" : "http"));
+        }
+        PoolingClientConnectionManager manager = new PoolingClientConnectionManager(SchemeRegistryFactory.createDefault());
 
-        Properties p = ctx.getCustomProperties();
+        manager.setDefaultMaxPerRoute(maxPerRoute);
+        manager.setMaxTotal(maxTotal);
 
-        if( p != null ) {
-            String proxyHost = p.getProperty("proxyHost");
-            String proxyPort = p.getProperty("proxyPort");
+        pooled = new PooledClient();
+        pooled.manager = manager;
+        pooled.client = new DefaultHttpClient(manager, params);
+        pooled.idleTimeout = idleTimeout;
 
-            if( proxyHost != null ) {
-                int port = 0;
+        PooledClient existing = clients.putIfAbsent(key, pooled);
+
+        if( existing != null ) {
+            manager.shutdown();
+            return existing.client;
+        }
+        startReaper();
+        return pooled.client;
+    }
+
+    private int getIntProperty(@Nonnull Properties p, @Nonnull String name, int defaultValue) {
+        String value = p.getProperty(name);
 
-                if( proxyPort != null && proxyPort.length() > 0 ) {
-                    port = Integer.parseInt(proxyPort);
+        if( value != null && value.length() > 0 ) {
+            try {
+                int i = Integer.parseInt(value);
+
+                if( i > 0 ) {
+                    return i;
                 }
-                params.setParameter(ConnRoutePNames.DEFAULT_PROXY, new HttpHost(proxyHost, port, ssl ? "https" : "http"));
+            }
+            catch( NumberFormatException e ) {
+                logger.warn("Invalid value for " + name + ": " + value);
             }
         }
-        return new DefaultHttpClient(params);
+        return defaultValue;
     }
 
     public @Nonnull String getEndpoint(@Nonnull ProviderContext ctx, @Nonnull String service) {
@@ -298,6 +731,19 @@ public class GoGridMethod {
         return endpoint + service;
     }
 
+    private void release(@Nonnull HttpResponse response) {
+        HttpEntity entity = response.getEntity();
+
+        if( entity != null ) {
+            try {
+                EntityUtils.consume(entity);
+            }
+            catch( IOException e ) {
+                logger.warn("Failed to release connection: " + e.getMessage());
+            }
+        }
+    }
+
     private @Nonnull String sign(@Nonnull ProviderContext ctx) throws CloudException, InternalException {
         byte[] publicKey = ctx.getAccessPublic();
         byte[] privateKey = ctx.getAccessPrivate();
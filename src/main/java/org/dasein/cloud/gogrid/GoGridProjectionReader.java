@@ -0,0 +1,272 @@
+/**
+ * Copyright (C) 2012-2013 enStratus Networks Inc
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.gogrid;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * Walks the <code>list</code> array of a GoGrid API response and extracts only a handful of scalar fields from
+ * each element, named by dotted paths such as <code>id</code> or <code>state.id</code>. Everything else in the
+ * response is scanned past character by character without building any JSON objects, which makes this reader
+ * suitable for status listings that need an ID and a state out of objects carrying far more.
+ * @version 2013.07 initial version
+ * @since 2013.07
+ */
+public class GoGridProjectionReader {
+    /**
+     * Extracts the specified fields from an already parsed element, for responses that were served from the
+     * response cache or shared with an in-flight call.
+     * @param item the element to extract from
+     * @param fields the dotted paths of the fields to extract
+     * @return the value of each field as a string, <code>null</code> where the field is absent or not a scalar
+     */
+    static public @Nonnull String[] extract(@Nonnull JSONObject item, @Nonnull String[] fields) {
+        String[] values = new String[fields.length];
+
+        for( int i=0; i<fields.length; i++ ) {
+            String[] parts = fields[i].split("\\.");
+            JSONObject current = item;
+
+            for( int j=0; current != null && j<parts.length; j++ ) {
+                Object value = current.opt(parts[j]);
+
+                if( j == parts.length-1 ) {
+                    if( value != null && value != JSONObject.NULL && !(value instanceof JSONObject) && !(value instanceof JSONArray) ) {
+                        values[i] = value.toString();
+                    }
+                }
+                else {
+                    current = (value instanceof JSONObject ? (JSONObject)value : null);
+                }
+            }
+        }
+        return values;
+    }
+
+    private boolean                      done;
+    private final HashMap<String,Integer> fields = new HashMap<String, Integer>();
+    private boolean                      inList;
+    private boolean                      opened;
+    private final HashSet<String>        parents = new HashSet<String>();
+    private final int                    size;
+    private JSONTokener                  tokener;
+
+    /**
+     * Constructs a reader for the specified fields.
+     * @param reader the source of the response
+     * @param fields the dotted paths of the fields to extract from each element
+     */
+    public GoGridProjectionReader(@Nonnull Reader reader, @Nonnull String ... fields) {
+        tokener = new JSONTokener(reader);
+        size = fields.length;
+        for( int i=0; i<fields.length; i++ ) {
+            String path = fields[i];
+
+            this.fields.put(path, i);
+            for( int idx = path.lastIndexOf('.'); idx > 0; idx = path.lastIndexOf('.', idx - 1) ) {
+                parents.add(path.substring(0, idx));
+            }
+        }
+    }
+
+    /**
+     * Reads the requested fields from the next element of the <code>list</code> array.
+     * @return the value of each field in the order they were requested, or <code>null</code> if the list has been
+     * exhausted or was not present
+     * @throws JSONException the response was not valid JSON or the list contained something other than objects
+     */
+    public @Nullable String[] next() throws JSONException {
+        if( done ) {
+            return null;
+        }
+        if( !opened ) {
+            opened = true;
+            if( tokener.nextClean() != '{' ) {
+                throw tokener.syntaxError("A GoGrid response must begin with '{'");
+            }
+        }
+        if( !inList && !seekList() ) {
+            done = true;
+            return null;
+        }
+        if( tokener.nextClean() != '{' ) {
+            throw tokener.syntaxError("Expected an object in the list");
+        }
+        String[] values = new String[size];
+
+        readObject(null, values);
+        switch( tokener.nextClean() ) {
+            case ',': break;
+            case ']': done = true; break;
+            default: throw tokener.syntaxError("Expected ',' or ']'");
+        }
+        return values;
+    }
+
+    private void readObject(@Nullable String path, @Nonnull String[] values) throws JSONException {
+        while( true ) {
+            char c = tokener.nextClean();
+
+            if( c == '}' ) {
+                return;
+            }
+            if( c == ',' ) {
+                continue;
+            }
+            if( c != '"' && c != '\'' ) {
+                throw tokener.syntaxError("Expected a key");
+            }
+            String key = tokener.nextString(c);
+
+            if( tokener.nextClean() != ':' ) {
+                throw tokener.syntaxError("Expected ':' after " + key);
+            }
+            String child = (path == null ? key : path + "." + key);
+            Integer idx = fields.get(child);
+
+            if( idx != null ) {
+                values[idx] = readScalar();
+            }
+            else if( parents.contains(child) ) {
+                c = tokener.nextClean();
+                if( c == '{' ) {
+                    readObject(child, values);
+                }
+                else {
+                    tokener.back();
+                    skipValue();
+                }
+            }
+            else {
+                skipValue();
+            }
+        }
+    }
+
+    private @Nullable String readScalar() throws JSONException {
+        char c = tokener.nextClean();
+
+        if( c == '"' || c == '\'' ) {
+            return tokener.nextString(c);
+        }
+        tokener.back();
+        if( c == '{' || c == '[' ) {
+            skipValue();
+            return null;
+        }
+        StringBuilder literal = new StringBuilder();
+
+        while( true ) {
+            c = tokener.next();
+            if( c == 0 || c == ',' || c == '}' || c == ']' || Character.isWhitespace(c) ) {
+                tokener.back();
+                break;
+            }
+            literal.append(c);
+        }
+        String value = literal.toString();
+
+        return (value.equals("null") ? null : value);
+    }
+
+    private boolean seekList() throws JSONException {
+        while( true ) {
+            char c = tokener.nextClean();
+
+            if( c == '}' || c == 0 ) {
+                return false;
+            }
+            if( c == ',' ) {
+                continue;
+            }
+            if( c != '"' && c != '\'' ) {
+                throw tokener.syntaxError("Expected a key");
+            }
+            String key = tokener.nextString(c);
+
+            if( tokener.nextClean() != ':' ) {
+                throw tokener.syntaxError("Expected ':' after " + key);
+            }
+            if( key.equals("list") ) {
+                if( tokener.nextClean() != '[' ) {
+                    throw tokener.syntaxError("Expected the list to be an array");
+                }
+                if( tokener.nextClean() == ']' ) {
+                    return false;
+                }
+                tokener.back();
+                inList = true;
+                return true;
+            }
+            skipValue();
+        }
+    }
+
+    private void skipString(char quote) throws JSONException {
+        while( true ) {
+            char c = tokener.next();
+
+            if( c == 0 ) {
+                throw tokener.syntaxError("Unterminated string");
+            }
+            if( c == '\\' ) {
+                tokener.next();
+            }
+            else if( c == quote ) {
+                return;
+            }
+        }
+    }
+
+    private void skipValue() throws JSONException {
+        char c = tokener.nextClean();
+
+        if( c == '"' || c == '\'' ) {
+            skipString(c);
+            return;
+        }
+        if( c == '{' || c == '[' ) {
+            int depth = 1;
+
+            while( depth > 0 ) {
+                c = tokener.next();
+                switch( c ) {
+                    case 0: throw tokener.syntaxError("Unterminated object or array");
+                    case '"': case '\'': skipString(c); break;
+                    case '{': case '[': depth++; break;
+                    case '}': case ']': depth--; break;
+                }
+            }
+            return;
+        }
+        while( c != 0 && c != ',' && c != '}' && c != ']' ) {
+            c = tokener.next();
+        }
+        tokener.back();
+    }
+}
@@ -0,0 +1,255 @@
+/**
+ * Copyright (C) 2012-2013 enStratus Networks Inc
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.gogrid;
+
+import org.dasein.util.CalendarWrapper;
+import org.json.JSONArray;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived cache of GoGrid listing responses shared by all {@link GoGridMethod} instances. Caching is opt-in
+ * through the {@link #RESPONSE_CACHE} custom property. Entries are keyed by endpoint, API key, service, and the
+ * normalized request parameters. A successful call to a mutating service drops every cached listing it affects
+ * for the same endpoint and API key. The cached arrays are shared by every caller that reads them and must be
+ * treated as read-only.
+ * @version 2013.07 initial version
+ * @since 2013.07
+ */
+public class GoGridResponseCache {
+    /**
+     * Custom property that turns on response caching when set to <code>true</code>.
+     */
+    static public final String RESPONSE_CACHE = "responseCache";
+
+    static private final int MAX_ENTRIES = 500;
+
+    static private class Entry {
+        public long      expiration;
+        public JSONArray list;
+        public String    scope;
+        public String    service;
+    }
+
+    static private final ConcurrentHashMap<String,Entry>      cache         = new ConcurrentHashMap<String, Entry>();
+    static private final ConcurrentHashMap<String,AtomicLong> generations   = new ConcurrentHashMap<String, AtomicLong>();
+    static private final Map<String,String[]>                 invalidations = new HashMap<String, String[]>();
+    static private final ConcurrentHashMap<String,Long>       ttls          = new ConcurrentHashMap<String, Long>();
+
+    static private final AtomicLong hits   = new AtomicLong(0L);
+    static private final AtomicLong misses = new AtomicLong(0L);
+
+    static {
+        ttls.put(GoGridMethod.IMAGE_LIST, CalendarWrapper.MINUTE);
+        ttls.put(GoGridMethod.IP_LIST, 15 * CalendarWrapper.SECOND);
+        ttls.put(GoGridMethod.LB_LIST, 15 * CalendarWrapper.SECOND);
+        ttls.put(GoGridMethod.LOOKUP_LIST, 10 * CalendarWrapper.MINUTE);
+        ttls.put(GoGridMethod.SERVER_LIST, 15 * CalendarWrapper.SECOND);
+
+        String[] servers = { GoGridMethod.SERVER_LIST, GoGridMethod.SERVER_GET, GoGridMethod.IP_LIST };
+        String[] loadBalancers = { GoGridMethod.LB_LIST, GoGridMethod.LB_GET, GoGridMethod.IP_LIST };
+        String[] images = { GoGridMethod.IMAGE_LIST, GoGridMethod.IMAGE_GET };
+
+        invalidations.put(GoGridMethod.SERVER_ADD, servers);
+        invalidations.put(GoGridMethod.SERVER_DELETE, servers);
+        invalidations.put(GoGridMethod.SERVER_POWER, new String[] { GoGridMethod.SERVER_LIST, GoGridMethod.SERVER_GET });
+        invalidations.put(GoGridMethod.LB_ADD, loadBalancers);
+        invalidations.put(GoGridMethod.LB_EDIT, loadBalancers);
+        invalidations.put(GoGridMethod.LB_DELETE, loadBalancers);
+        invalidations.put(GoGridMethod.IMAGE_SAVE, new String[] { GoGridMethod.IMAGE_LIST, GoGridMethod.IMAGE_GET, GoGridMethod.SERVER_LIST, GoGridMethod.SERVER_GET });
+        invalidations.put(GoGridMethod.IMAGE_EDIT, images);
+        invalidations.put(GoGridMethod.IMAGE_DELETE, images);
+    }
+
+    /**
+     * @return the number of lookups that were served from the cache
+     */
+    static public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of lookups against cacheable services that had to go to GoGrid
+     */
+    static public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Changes how long responses from the specified service are cached. A TTL of 0 stops the service from being
+     * cached at all.
+     * @param service the GoGrid service
+     * @param ttl the time to live in milliseconds
+     */
+    static public void setTimeToLive(@Nonnull String service, @Nonnegative long ttl) {
+        if( ttl < 1L ) {
+            ttls.remove(service);
+        }
+        else {
+            ttls.put(service, ttl);
+        }
+    }
+
+    /**
+     * Drops every cached response.
+     */
+    static public void clear() {
+        cache.clear();
+    }
+
+    static boolean isCacheable(@Nonnull String service) {
+        return ttls.containsKey(service);
+    }
+
+    static boolean isMutation(@Nonnull String service) {
+        return invalidations.containsKey(service);
+    }
+
+    static @Nonnull String toKey(@Nonnull String scope, @Nonnull String service, @Nullable GoGridMethod.Param[] params) {
+        StringBuilder key = new StringBuilder();
+
+        key.append(scope).append("|").append(service).append("?");
+        if( params != null && params.length > 0 ) {
+            GoGridMethod.Param[] sorted = Arrays.copyOf(params, params.length);
+
+            Arrays.sort(sorted, new Comparator<GoGridMethod.Param>() {
+                public int compare(GoGridMethod.Param a, GoGridMethod.Param b) {
+                    int c = a.getKey().compareTo(b.getKey());
+
+                    return (c != 0 ? c : a.getValue().compareTo(b.getValue()));
+                }
+            });
+            for( GoGridMethod.Param p : sorted ) {
+                key.append(p.getKey()).append("=").append(p.getValue()).append("&");
+            }
+        }
+        return key.toString();
+    }
+
+    static @Nullable JSONArray get(@Nonnull String key) {
+        Entry entry = cache.get(key);
+
+        if( entry == null ) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if( entry.expiration < System.currentTimeMillis() ) {
+            cache.remove(key, entry);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.list;
+    }
+
+    /**
+     * Provides the number of times listings from the specified service have been invalidated in the specified
+     * scope. A caller reads this before loading a listing and hands it to {@link #put(String, String, String, JSONArray, long)}
+     * so that a listing loaded across a mutation is never cached.
+     * @param scope the endpoint and API key
+     * @param service the GoGrid service
+     * @return the current generation of the service's listings
+     */
+    static long getGeneration(@Nonnull String scope, @Nonnull String service) {
+        AtomicLong generation = generations.get(scope + "|" + service);
+
+        return (generation == null ? 0L : generation.get());
+    }
+
+    static void put(@Nonnull String key, @Nonnull String scope, @Nonnull String service, @Nonnull JSONArray list, long generation) {
+        Long ttl = ttls.get(service);
+
+        if( ttl == null || getGeneration(scope, service) != generation ) {
+            return;
+        }
+        if( cache.size() >= MAX_ENTRIES ) {
+            purge();
+        }
+        Entry entry = new Entry();
+
+        entry.expiration = System.currentTimeMillis() + ttl;
+        entry.list = list;
+        entry.scope = scope;
+        entry.service = service;
+        cache.put(key, entry);
+        // an invalidation may have slipped in between the check above and the put
+        if( getGeneration(scope, service) != generation ) {
+            cache.remove(key, entry);
+        }
+    }
+
+    static void invalidate(@Nonnull String scope, @Nonnull String mutation) {
+        String[] services = invalidations.get(mutation);
+
+        if( services == null ) {
+            return;
+        }
+        for( String service : services ) {
+            AtomicLong generation = generations.get(scope + "|" + service);
+
+            if( generation == null ) {
+                generation = new AtomicLong(0L);
+                AtomicLong existing = generations.putIfAbsent(scope + "|" + service, generation);
+
+                if( existing != null ) {
+                    generation = existing;
+                }
+            }
+            generation.incrementAndGet();
+        }
+        for( Map.Entry<String,Entry> e : cache.entrySet() ) {
+            Entry entry = e.getValue();
+
+            if( entry.scope.equals(scope) ) {
+                for( String service : services ) {
+                    if( service.equals(entry.service) ) {
+                        cache.remove(e.getKey(), entry);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    static private void purge() {
+        long now = System.currentTimeMillis();
+        ArrayList<String> expired = new ArrayList<String>();
+
+        for( Map.Entry<String,Entry> e : cache.entrySet() ) {
+            if( e.getValue().expiration < now ) {
+                expired.add(e.getKey());
+            }
+        }
+        for( String key : expired ) {
+            cache.remove(key);
+        }
+        if( cache.size() >= MAX_ENTRIES ) {
+            cache.clear();
+        }
+    }
+}
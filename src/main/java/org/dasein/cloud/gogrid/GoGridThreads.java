@@ -0,0 +1,188 @@
+/**
+ * Copyright (C) 2012-2013 enStratus Networks Inc
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.gogrid;
+
+import org.dasein.cloud.CloudException;
+import org.dasein.cloud.InternalException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared daemon thread pools for background work against GoGrid, such as parallel fetches and polling.
+ * @version 2013.07 initial version
+ * @since 2013.07
+ */
+public class GoGridThreads {
+    static private class DaemonFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger(0);
+        private final String        prefix;
+
+        public DaemonFactory(@Nonnull String prefix) { this.prefix = prefix; }
+
+        public Thread newThread(@Nonnull Runnable r) {
+            Thread t = new Thread(r, prefix + "-" + count.incrementAndGet());
+
+            t.setDaemon(true);
+            return t;
+        }
+    }
+
+    static private final Random random = new Random();
+
+    static private ExecutorService          async;
+    static private ScheduledExecutorService scheduler;
+    static private ExecutorService          workers;
+
+    /**
+     * Provides the executor behind the asynchronous operations in this provider. Unless one has been configured
+     * through {@link #setAsyncExecutor(ExecutorService)}, this is a virtual thread per task executor on JVMs that
+     * support virtual threads and the shared worker pool otherwise.
+     * @return the executor for asynchronous operations
+     */
+    static public synchronized @Nonnull ExecutorService getAsyncExecutor() {
+        if( async == null ) {
+            try {
+                Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+
+                async = (ExecutorService)m.invoke(null);
+            }
+            catch( Throwable ignore ) {
+                async = getWorkers();
+            }
+        }
+        return async;
+    }
+
+    /**
+     * Replaces the executor behind the asynchronous operations in this provider. The previous executor is not
+     * shut down.
+     * @param executor the executor to use or <code>null</code> to restore the default
+     */
+    static public synchronized void setAsyncExecutor(@Nullable ExecutorService executor) {
+        async = executor;
+    }
+
+    /**
+     * @return a scheduler for timed background tasks like polling; tasks should be short and never block
+     */
+    static public synchronized @Nonnull ScheduledExecutorService getScheduler() {
+        if( scheduler == null ) {
+            scheduler = Executors.newScheduledThreadPool(2, new DaemonFactory("GoGrid scheduler"));
+        }
+        return scheduler;
+    }
+
+    /**
+     * Spreads a polling interval by up to 20% in either direction so that pollers started together do not hit
+     * GoGrid in lock step.
+     * @param interval the nominal interval
+     * @return the interval to actually wait
+     */
+    static public long jitter(long interval) {
+        long spread = interval / 5;
+
+        return interval - spread + (long)(random.nextDouble() * 2 * spread);
+    }
+
+    /**
+     * Runs independent API calls in parallel, the first on the calling thread and the rest on the worker pool, and
+     * waits for all of them to finish. The tasks report their results through state they share with the caller.
+     * @param tasks the calls to run
+     * @throws CloudException one of the calls failed in the cloud
+     * @throws InternalException one of the calls failed within Dasein Cloud or the wait was interrupted
+     */
+    @SuppressWarnings("unchecked")
+    static public void runAll(@Nonnull Callable<?> ... tasks) throws CloudException, InternalException {
+        ArrayList<Future<?>> futures = new ArrayList<Future<?>>();
+
+        for( int i=1; i<tasks.length; i++ ) {
+            futures.add(getWorkers().submit(tasks[i]));
+        }
+        if( tasks.length > 0 ) {
+            FutureTask<?> first = new FutureTask<Object>((Callable<Object>)tasks[0]);
+
+            first.run();
+            futures.add(0, first);
+        }
+        Exception error = null;
+
+        for( Future<?> future : futures ) {
+            try {
+                GoGridFuture.await(future);
+            }
+            catch( CloudException e ) {
+                if( error == null ) {
+                    error = e;
+                }
+            }
+            catch( InternalException e ) {
+                if( error == null ) {
+                    error = e;
+                }
+            }
+            catch( RuntimeException e ) {
+                if( error == null ) {
+                    error = e;
+                }
+            }
+        }
+        if( error instanceof CloudException ) {
+            throw (CloudException)error;
+        }
+        if( error instanceof InternalException ) {
+            throw (InternalException)error;
+        }
+        if( error != null ) {
+            throw (RuntimeException)error;
+        }
+    }
+
+    /**
+     * Creates a new fixed-size pool of daemon threads for work that must be bounded in its parallelism. The caller
+     * is responsible for shutting the pool down.
+     * @param name the prefix for thread names in the pool
+     * @param size the number of threads in the pool
+     * @return a new pool
+     */
+    static public @Nonnull ExecutorService newPool(@Nonnull String name, int size) {
+        return Executors.newFixedThreadPool(size, new DaemonFactory(name));
+    }
+
+    /**
+     * @return an unbounded pool for running blocking API calls in parallel
+     */
+    static public synchronized @Nonnull ExecutorService getWorkers() {
+        if( workers == null ) {
+            workers = Executors.newCachedThreadPool(new DaemonFactory("GoGrid worker"));
+        }
+        return workers;
+    }
+}
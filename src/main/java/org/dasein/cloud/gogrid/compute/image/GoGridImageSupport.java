@@ -36,8 +36,12 @@ import org.dasein.cloud.compute.MachineImageType;
 import org.dasein.cloud.compute.Platform;
 
 import org.dasein.cloud.gogrid.GoGrid;
+import org.dasein.cloud.gogrid.GoGridFuture;
+import org.dasein.cloud.gogrid.GoGridLookupCatalog;
 import org.dasein.cloud.gogrid.GoGridMethod;
+import org.dasein.cloud.gogrid.GoGridThreads;
 import org.dasein.cloud.identity.ServiceAction;
+import org.dasein.util.CalendarWrapper;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -47,6 +51,7 @@ import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Locale;
+import java.util.concurrent.Future;
 
 /**
  * Support for GoGrid machine images.
@@ -58,6 +63,8 @@ import java.util.Locale;
 public class GoGridImageSupport extends AbstractImageSupport {
     static private final Logger logger = GoGrid.getLogger(GoGridImageSupport.class);
 
+    static private final String[] STATUS_FIELDS = { "id", "state.id", "owner.id" };
+
     private GoGrid provider;
 
     public GoGridImageSupport(GoGrid provider) {
@@ -73,11 +80,81 @@ public class GoGridImageSupport extends AbstractImageSupport {
     }
 
     @Override
-    protected @Nonnull MachineImage capture(@Nonnull ImageCreateOptions options, @Nullable AsynchronousTask<MachineImage> task) throws CloudException, InternalException {
+    protected @Nonnull MachineImage capture(@Nonnull ImageCreateOptions options, @Nullable final AsynchronousTask<MachineImage> task) throws CloudException, InternalException {
         if( task != null ) {
             task.setPercentComplete(1);
         }
+        MachineImage img = save(options);
+
+        if( task == null || !img.getCurrentState().equals(MachineImageState.PENDING) ) {
+            return img;
+        }
+        task.setPercentComplete(5);
+        watch(img.getProviderMachineImageId(), task, new GoGridFuture<MachineImage>());
+        // captureImageAsync() in the core completes the task with whatever this returns the moment it returns, so
+        // its capture thread parks here until the image watcher has completed the task
+        synchronized( task ) {
+            while( !task.isComplete() ) {
+                try {
+                    task.wait();
+                }
+                catch( InterruptedException e ) {
+                    Thread.currentThread().interrupt();
+                    throw new InternalException(e);
+                }
+            }
+        }
+        Throwable error = task.getTaskError();
 
+        if( error instanceof CloudException ) {
+            throw (CloudException)error;
+        }
+        if( error != null ) {
+            throw new InternalException(error);
+        }
+        return task.getResult();
+    }
+
+    /**
+     * Captures an image without holding any thread while GoGrid saves it. The <code>IMAGE_SAVE</code> call runs on
+     * the asynchronous executor and the shared {@link GoGridImageWatcher} completes the future once the image is
+     * available.
+     * @param options the options for the image to capture
+     * @return a future that completes with the available image or fails if the image is deleted or never becomes
+     * available
+     * @see GoGridThreads#getAsyncExecutor()
+     */
+    public @Nonnull Future<MachineImage> captureAsync(@Nonnull final ImageCreateOptions options) {
+        final GoGridFuture<MachineImage> future = new GoGridFuture<MachineImage>();
+
+        GoGridThreads.getAsyncExecutor().submit(new Runnable() {
+            public void run() {
+                try {
+                    MachineImage img = save(options);
+
+                    if( img.getCurrentState().equals(MachineImageState.PENDING) ) {
+                        watch(img.getProviderMachineImageId(), null, future);
+                    }
+                    else {
+                        future.complete(img);
+                    }
+                }
+                catch( Throwable t ) {
+                    future.fail(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Issues the <code>IMAGE_SAVE</code> call for a capture.
+     * @param options the options for the image to capture
+     * @return the image as GoGrid first reports it, typically still pending
+     * @throws CloudException an error occurred saving the image
+     * @throws InternalException an error occurred within Dasein Cloud saving the image
+     */
+    private @Nonnull MachineImage save(@Nonnull ImageCreateOptions options) throws CloudException, InternalException {
         GoGridMethod method = new GoGridMethod(provider);
         String vmId = options.getVirtualMachineId();
 
@@ -95,9 +172,6 @@ public class GoGridImageSupport extends AbstractImageSupport {
                 MachineImage img = toImage(list.getJSONObject(i));
 
                 if( img != null ) {
-                    if( task != null ) {
-                        task.completeWithResult(img);
-                    }
                     return img;
                 }
             }
@@ -110,6 +184,49 @@ public class GoGridImageSupport extends AbstractImageSupport {
         throw new CloudException("Image was captured but no image was returned");
     }
 
+    /**
+     * Hands a pending image to the shared image watcher, completing the task, if any, and the future from the
+     * watcher's callback with either the available image or the reason it never became available.
+     * @param imageId the image being saved
+     * @param task the task to report progress to and complete, if any
+     * @param future the future to complete
+     * @throws CloudException no context was set for this request
+     * @throws InternalException an error occurred within Dasein Cloud identifying the account
+     */
+    private void watch(@Nonnull final String imageId, @Nullable final AsynchronousTask<MachineImage> task, @Nonnull final GoGridFuture<MachineImage> future) throws CloudException, InternalException {
+        GoGridImageWatcher.getInstance(provider).watch(provider, imageId, task, CalendarWrapper.HOUR, new GoGridImageWatcher.Listener() {
+            public void available(@Nonnull JSONObject image) {
+                try {
+                    MachineImage img = toImage(image);
+
+                    if( img == null ) {
+                        failed(new CloudException("Image " + imageId + " became available but could not be read"));
+                        return;
+                    }
+                    if( task != null ) {
+                        task.completeWithResult(img);
+                    }
+                    future.complete(img);
+                }
+                catch( Throwable t ) {
+                    logger.error("Failed to read image " + imageId + ": " + t.getMessage());
+                    if( task != null ) {
+                        task.complete(t);
+                    }
+                    future.fail(t);
+                }
+            }
+
+            public void failed(@Nonnull CloudException cause) {
+                logger.error("Capture of image " + imageId + " failed: " + cause.getMessage());
+                if( task != null ) {
+                    task.complete(cause);
+                }
+                future.fail(cause);
+            }
+        });
+    }
+
     @Override
     public MachineImage getImage(@Nonnull String providerImageId) throws CloudException, InternalException {
         GoGridMethod method = new GoGridMethod(provider);
@@ -184,29 +301,9 @@ public class GoGridImageSupport extends AbstractImageSupport {
 
     @Override
     public boolean isSubscribed() throws CloudException, InternalException {
-        GoGridMethod method = new GoGridMethod(provider);
         String regionId = getRegionId(getContext());
 
-        JSONArray regionList = method.get(GoGridMethod.LOOKUP_LIST, new GoGridMethod.Param("lookup", "server.datacenter"));
-
-        if( regionList == null ) {
-            return false;
-        }
-        for( int i=0; i<regionList.length(); i++ ) {
-            try {
-                JSONObject r = regionList.getJSONObject(i);
-
-                if( r.has("id") && regionId.equals(r.getString("id")) ) {
-                    return true;
-                }
-            }
-            catch( JSONException e ) {
-                logger.error("Unable to load data centers from GoGrid: " + e.getMessage());
-                e.printStackTrace();
-                throw new CloudException(e);
-            }
-        }
-        return false;
+        return GoGridLookupCatalog.getInstance(provider).contains(GoGridLookupCatalog.SERVER_DATACENTER, regionId);
     }
 
     @Override
@@ -215,33 +312,23 @@ public class GoGridImageSupport extends AbstractImageSupport {
         String regionId = getRegionId(ctx);
 
         GoGridMethod method = new GoGridMethod(provider);
+        final ArrayList<ResourceStatus> images = new ArrayList<ResourceStatus>();
 
-        JSONArray list = method.get(GoGridMethod.IMAGE_LIST, new GoGridMethod.Param("datacenter", regionId));
-
-        if( list == null ) {
-            return Collections.emptyList();
-        }
-        ArrayList<ResourceStatus> images = new ArrayList<ResourceStatus>();
-
-        for( int i=0; i<list.length(); i++ ) {
-            try {
-                ResourceStatus img = toStatus(list.getJSONObject(i), false);
+        method.project(GoGridMethod.IMAGE_LIST, STATUS_FIELDS, new GoGridMethod.ProjectionHandler() {
+            public boolean handle(@Nonnull String[] values) throws CloudException, InternalException {
+                ResourceStatus img = toStatus(values, false);
 
                 if( img != null ) {
                     images.add(img);
                 }
+                return true;
             }
-            catch( JSONException e ) {
-                logger.error("Failed to parse JSON: " + e.getMessage());
-                e.printStackTrace();
-                throw new CloudException(e);
-            }
-        }
+        }, new GoGridMethod.Param("datacenter", regionId));
         return images;
     }
 
     @Override
-    public @Nonnull Iterable<MachineImage> listImages(@Nullable ImageFilterOptions options) throws CloudException, InternalException {
+    public @Nonnull Iterable<MachineImage> listImages(@Nullable final ImageFilterOptions options) throws CloudException, InternalException {
         ImageClass cls = (options == null ? null : options.getImageClass());
 
         if( cls != null && !cls.equals(ImageClass.MACHINE) ) {
@@ -250,19 +337,13 @@ public class GoGridImageSupport extends AbstractImageSupport {
         ProviderContext ctx = getContext();
         String regionId = getRegionId(ctx);
 
-        String account = (options == null ? null : options.getAccountNumber());
+        final String account = (options == null ? null : options.getAccountNumber());
         GoGridMethod method = new GoGridMethod(provider);
+        final ArrayList<MachineImage> images = new ArrayList<MachineImage>();
 
-        JSONArray list = method.get(GoGridMethod.IMAGE_LIST, new GoGridMethod.Param("datacenter", regionId));
-
-        if( list == null ) {
-            return Collections.emptyList();
-        }
-        ArrayList<MachineImage> images = new ArrayList<MachineImage>();
-
-        for( int i=0; i<list.length(); i++ ) {
-            try {
-                MachineImage img = toImage(list.getJSONObject(i));
+        method.stream(GoGridMethod.IMAGE_LIST, new GoGridMethod.ItemHandler() {
+            public boolean handle(@Nonnull JSONObject item) throws CloudException, InternalException {
+                MachineImage img = toImage(item);
 
                 if( img != null ) {
                     if( account == null && !img.getProviderOwnerId().equals("--gogrid--") ) {
@@ -276,13 +357,9 @@ public class GoGridImageSupport extends AbstractImageSupport {
                         }
                     }
                 }
+                return true;
             }
-            catch( JSONException e ) {
-                logger.error("Failed to parse JSON: " + e.getMessage());
-                e.printStackTrace();
-                throw new CloudException(e);
-            }
-        }
+        }, new GoGridMethod.Param("datacenter", regionId));
         return images;
     }
 
@@ -327,33 +404,23 @@ public class GoGridImageSupport extends AbstractImageSupport {
     }
 
     @Override
-    public @Nonnull Iterable<MachineImage> searchPublicImages(@Nonnull ImageFilterOptions options) throws CloudException, InternalException {
+    public @Nonnull Iterable<MachineImage> searchPublicImages(@Nonnull final ImageFilterOptions options) throws CloudException, InternalException {
         ProviderContext ctx = getContext();
         String regionId = getRegionId(ctx);
 
         GoGridMethod method = new GoGridMethod(provider);
+        final ArrayList<MachineImage> images = new ArrayList<MachineImage>();
 
-        JSONArray list = method.get(GoGridMethod.IMAGE_LIST, new GoGridMethod.Param("datacenter", regionId));
-
-        if( list == null ) {
-            return Collections.emptyList();
-        }
-        ArrayList<MachineImage> images = new ArrayList<MachineImage>();
-
-        for( int i=0; i<list.length(); i++ ) {
-            try {
-                MachineImage img = toImage(list.getJSONObject(i));
+        method.stream(GoGridMethod.IMAGE_LIST, new GoGridMethod.ItemHandler() {
+            public boolean handle(@Nonnull JSONObject item) throws CloudException, InternalException {
+                MachineImage img = toImage(item);
 
                 if( img != null && options.matches(img) ) {
                     images.add(img);
                 }
+                return true;
             }
-            catch( JSONException e ) {
-                logger.error("Failed to parse JSON: " + e.getMessage());
-                e.printStackTrace();
-                throw new CloudException(e);
-            }
-        }
+        }, new GoGridMethod.Param("datacenter", regionId));
         return images;
     }
 
@@ -511,52 +578,30 @@ public class GoGridImageSupport extends AbstractImageSupport {
         return img;
     }
 
-    private @Nullable ResourceStatus toStatus(@Nullable JSONObject json, boolean includeGoGrid) throws CloudException, InternalException {
-        if( json == null ) {
+    private @Nullable ResourceStatus toStatus(@Nonnull String[] values, boolean includeGoGrid) throws CloudException {
+        String id = values[0];
+
+        if( id == null ) {
             return null;
         }
         try {
-            String id;
-
-            if( json.has("id") ) {
-                id = json.getString("id");
-            }
-            else {
-                return null;
-            }
-            if( json.has("owner") && !includeGoGrid ) {
-                JSONObject owner = json.getJSONObject("owner");
-
-                if( owner != null && owner.has("id") ) {
-                    long ownerId = owner.getLong("id");
-
-                    if( ownerId < 1L ) {
-                        return null;
-                    }
-                }
-            }
-            else if( !includeGoGrid ) {
+            if( !includeGoGrid && (values[2] == null || Long.parseLong(values[2]) < 1L) ) {
                 return null;
             }
             MachineImageState is = MachineImageState.PENDING;
 
-            if( json.has("state") ) {
-                JSONObject state = json.getJSONObject("state");
-
-                if( state.has("id") ) {
-                    switch( state.getInt("id") ) {
-                        case 1: case 7: is = MachineImageState.PENDING; break;
-                        case 2: is = MachineImageState.ACTIVE; break;
-                        case 3: case 4: is = MachineImageState.DELETED; break;
-                    }
+            if( values[1] != null ) {
+                switch( Integer.parseInt(values[1]) ) {
+                    case 1: case 7: is = MachineImageState.PENDING; break;
+                    case 2: is = MachineImageState.ACTIVE; break;
+                    case 3: case 4: is = MachineImageState.DELETED; break;
                 }
             }
             return new ResourceStatus(id, is);
         }
-        catch( JSONException e ) {
-            logger.error("Failed to process image JSON: " + e.getMessage());
-            e.printStackTrace();
-            throw new CloudException(e);
+        catch( NumberFormatException e ) {
+            logger.error("Failed to process image status: " + e.getMessage());
+            throw new CloudException("Invalid owner or state for image " + id);
         }
     }
 }
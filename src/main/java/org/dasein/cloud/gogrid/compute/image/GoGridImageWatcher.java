@@ -0,0 +1,270 @@
+/**
+ * Copyright (C) 2012-2013 enStratus Networks Inc
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.gogrid.compute.image;
+
+import org.apache.log4j.Logger;
+import org.dasein.cloud.AsynchronousTask;
+import org.dasein.cloud.CloudException;
+import org.dasein.cloud.InternalException;
+import org.dasein.cloud.ProviderContext;
+import org.dasein.cloud.compute.MachineImage;
+import org.dasein.cloud.gogrid.GoGrid;
+import org.dasein.cloud.gogrid.GoGridMethod;
+import org.dasein.cloud.gogrid.GoGridThreads;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows images being saved until GoGrid reports them available. All images pending for an account are checked
+ * with one <code>IMAGE_LIST</code> call of private images per interval, however many captures are in progress,
+ * and the progress of each capture is reported through its {@link AsynchronousTask}. Each capture is polled with
+ * the provider that started it, so captures started through different providers for the same account are each
+ * checked with their own connection.
+ * @version 2013.07 initial version
+ * @since 2013.07
+ */
+public class GoGridImageWatcher {
+    static private final Logger logger = GoGrid.getLogger(GoGridImageWatcher.class);
+
+    static private final long INTERVAL = 20000L;
+
+    static private final ConcurrentHashMap<String,GoGridImageWatcher> watchers = new ConcurrentHashMap<String, GoGridImageWatcher>();
+
+    /**
+     * Provides the image watcher for the endpoint and account of the specified provider.
+     * @param provider the provider whose context identifies the account
+     * @return the image watcher for the account
+     * @throws CloudException no context was set for the provider
+     * @throws InternalException an error occurred within Dasein Cloud identifying the account
+     */
+    static public @Nonnull GoGridImageWatcher getInstance(@Nonnull GoGrid provider) throws CloudException, InternalException {
+        ProviderContext ctx = provider.getContext();
+
+        if( ctx == null ) {
+            throw new CloudException("No context was provided for this request");
+        }
+        String key;
+
+        try {
+            key = ctx.getEndpoint() + "|" + new String(ctx.getAccessPublic(), "utf-8");
+        }
+        catch( UnsupportedEncodingException e ) {
+            e.printStackTrace();
+            throw new InternalException("UTF-8 not supported");
+        }
+        GoGridImageWatcher watcher = watchers.get(key);
+
+        if( watcher == null ) {
+            watcher = new GoGridImageWatcher();
+            GoGridImageWatcher existing = watchers.putIfAbsent(key, watcher);
+
+            if( existing != null ) {
+                watcher = existing;
+            }
+        }
+        return watcher;
+    }
+
+    /**
+     * Receives the outcome of a watched capture.
+     */
+    static public interface Listener {
+        /**
+         * Called once the image is available.
+         * @param image the image record from GoGrid
+         */
+        public void available(@Nonnull JSONObject image);
+
+        /**
+         * Called when the image was deleted before it became available or the wait timed out.
+         * @param cause the reason the capture failed
+         */
+        public void failed(@Nonnull CloudException cause);
+    }
+
+    static private class Capture {
+        public long                           deadline;
+        public boolean                        done;
+        public String                         imageId;
+        public Listener                       listener;
+        public GoGrid                         provider;
+        public AsynchronousTask<MachineImage> task;
+    }
+
+    private final ArrayList<Capture> captures = new ArrayList<Capture>();
+    private boolean                  scheduled;
+
+    private GoGridImageWatcher() { }
+
+    /**
+     * Watches an image being saved until it becomes available. The listener is called from a worker thread once
+     * the outcome is known; no thread waits in the meantime.
+     * @param provider the provider to poll GoGrid with for this capture
+     * @param imageId the image being saved
+     * @param task the task to report progress to, if any
+     * @param timeout the maximum time in milliseconds to wait
+     * @param listener the listener to notify of the outcome
+     */
+    public synchronized void watch(@Nonnull GoGrid provider, @Nonnull String imageId, @Nullable AsynchronousTask<MachineImage> task, long timeout, @Nonnull Listener listener) {
+        Capture capture = new Capture();
+
+        capture.imageId = imageId;
+        capture.task = task;
+        capture.deadline = System.currentTimeMillis() + timeout;
+        capture.listener = listener;
+        capture.provider = provider;
+        captures.add(capture);
+        if( !scheduled ) {
+            schedule();
+        }
+    }
+
+    private void schedule() {
+        scheduled = true;
+        GoGridThreads.getScheduler().schedule(new Runnable() {
+            public void run() {
+                GoGridThreads.getWorkers().submit(new Runnable() {
+                    public void run() {
+                        poll();
+                    }
+                });
+            }
+        }, INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    private void poll() {
+        IdentityHashMap<GoGrid,HashMap<String,Capture>> byProvider = new IdentityHashMap<GoGrid, HashMap<String, Capture>>();
+
+        synchronized( this ) {
+            for( Capture capture : captures ) {
+                HashMap<String,Capture> pending = byProvider.get(capture.provider);
+
+                if( pending == null ) {
+                    pending = new HashMap<String, Capture>();
+                    byProvider.put(capture.provider, pending);
+                }
+                pending.put(capture.imageId, capture);
+            }
+        }
+        for( Map.Entry<GoGrid,HashMap<String,Capture>> entry : byProvider.entrySet() ) {
+            final HashMap<String,Capture> pending = entry.getValue();
+
+            try {
+                GoGridMethod method = new GoGridMethod(entry.getKey());
+
+                method.stream(GoGridMethod.IMAGE_LIST, new GoGridMethod.ItemHandler() {
+                    public boolean handle(@Nonnull JSONObject item) throws CloudException {
+                        try {
+                            Capture capture = (item.has("id") ? pending.get(item.getString("id")) : null);
+
+                            if( capture != null && item.has("state") ) {
+                                update(capture, item, item.getJSONObject("state").getInt("id"));
+                            }
+                        }
+                        catch( JSONException e ) {
+                            logger.error("Failed to parse JSON: " + e.getMessage());
+                            e.printStackTrace();
+                            throw new CloudException(e);
+                        }
+                        return true;
+                    }
+                }, new GoGridMethod.Param("isPublic", "false"));
+            }
+            catch( Throwable t ) {
+                logger.warn("Unable to poll image states: " + t.getMessage());
+            }
+        }
+        long now = System.currentTimeMillis();
+        ArrayList<Capture> done = new ArrayList<Capture>();
+
+        for( HashMap<String,Capture> pending : byProvider.values() ) {
+            for( Capture capture : pending.values() ) {
+                if( !capture.done && capture.deadline < now ) {
+                    finish(capture, null, new CloudException("System timed out waiting for image " + capture.imageId + " to become available"));
+                }
+                if( capture.done ) {
+                    done.add(capture);
+                }
+            }
+        }
+        synchronized( this ) {
+            captures.removeAll(done);
+            if( captures.isEmpty() ) {
+                scheduled = false;
+            }
+            else {
+                schedule();
+            }
+        }
+    }
+
+    private void finish(@Nonnull Capture capture, @Nullable JSONObject image, @Nullable CloudException error) {
+        capture.done = true;
+        try {
+            if( error != null ) {
+                capture.listener.failed(error);
+            }
+            else if( image != null ) {
+                capture.listener.available(image);
+            }
+        }
+        catch( Throwable t ) {
+            logger.error("Image listener failed: " + t.getMessage());
+        }
+    }
+
+    /**
+     * Applies the latest state of an image to its capture.
+     */
+    private void update(@Nonnull Capture capture, @Nonnull JSONObject json, int state) {
+        AsynchronousTask<MachineImage> task = capture.task;
+
+        switch( state ) {
+            case 1: // saving
+                if( task != null ) {
+                    task.setPercentComplete(Math.min(75.0, Math.max(10.0, task.getPercentComplete() + 5.0)));
+                }
+                break;
+            case 7: // migrating
+                if( task != null ) {
+                    task.setPercentComplete(Math.max(80.0, task.getPercentComplete()));
+                }
+                break;
+            case 2: // available
+                if( logger.isDebugEnabled() ) {
+                    logger.debug("Image " + capture.imageId + " is available");
+                }
+                finish(capture, json, null);
+                break;
+            case 3: case 4: // trash, deleted
+                finish(capture, null, new CloudException("Image " + capture.imageId + " was deleted before it became available"));
+                break;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright (C) 2012-2013 enStratus Networks Inc
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.gogrid.compute.server;
+
+import org.apache.log4j.Logger;
+import org.dasein.cloud.CloudException;
+import org.dasein.cloud.InternalException;
+import org.dasein.cloud.ProviderContext;
+import org.dasein.cloud.gogrid.GoGrid;
+import org.dasein.util.CalendarWrapper;
+
+import javax.annotation.Nonnull;
+import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Allocates unique server names for launches in this JVM. GoGrid server names are unique without regard to case,
+ * so every name is compared in lower case against a hashed index of the names in a server listing and against the
+ * names reserved by other launches that have not yet shown up in a listing. The launch that made a reservation
+ * releases it once it finishes, whether the server has shown up in GoGrid or the launch failed. A reservation that
+ * is never released lapses after 20 minutes.
+ * @version 2013.07 initial version
+ * @since 2013.07
+ */
+public class GoGridServerNames {
+    static private final Logger logger = GoGrid.getLogger(GoGridServerNames.class);
+
+    static private final int  MAX_LENGTH       = 20;
+    static private final int  MAX_SUFFIX       = 999;
+    static private final long RESERVATION_TIME = 20L * CalendarWrapper.MINUTE;
+
+    static private final ConcurrentHashMap<String,GoGridServerNames> names = new ConcurrentHashMap<String, GoGridServerNames>();
+
+    /**
+     * Provides the name registry for the endpoint, account, and region of the specified provider.
+     * @param provider the provider whose context identifies the name space
+     * @return the name registry for the name space
+     * @throws CloudException no context or region was set for the provider
+     * @throws InternalException an error occurred within Dasein Cloud identifying the name space
+     */
+    static public @Nonnull GoGridServerNames getInstance(@Nonnull GoGrid provider) throws CloudException, InternalException {
+        ProviderContext ctx = provider.getContext();
+
+        if( ctx == null ) {
+            throw new CloudException("No context was provided for this request");
+        }
+        if( ctx.getRegionId() == null ) {
+            throw new CloudException("No region was provided for this request");
+        }
+        String key;
+
+        try {
+            key = ctx.getEndpoint() + "|" + new String(ctx.getAccessPublic(), "utf-8") + "|" + ctx.getRegionId();
+        }
+        catch( UnsupportedEncodingException e ) {
+            e.printStackTrace();
+            throw new InternalException("UTF-8 not supported");
+        }
+        GoGridServerNames registry = names.get(key);
+
+        if( registry == null ) {
+            registry = new GoGridServerNames();
+            GoGridServerNames existing = names.putIfAbsent(key, registry);
+
+            if( existing != null ) {
+                registry = existing;
+            }
+        }
+        return registry;
+    }
+
+    /**
+     * Folds a server name into the form used for comparisons.
+     * @param name the name to fold
+     * @return the folded name
+     */
+    static public @Nonnull String fold(@Nonnull String name) {
+        return name.toLowerCase(Locale.ENGLISH);
+    }
+
+    private final HashMap<String,Long> reserved = new HashMap<String, Long>();
+
+    private GoGridServerNames() { }
+
+    /**
+     * Reserves the requested name or, if it is too long or already taken, the first free variant made up of the
+     * name truncated to 17 characters followed by a numeric suffix.
+     * @param name the requested name
+     * @param existing the folded names of the servers in the most recent listing
+     * @return the reserved name
+     * @throws CloudException no variant of the name is available
+     */
+    public synchronized @Nonnull String reserve(@Nonnull String name, @Nonnull Set<String> existing) throws CloudException {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String,Long>> it = reserved.entrySet().iterator();
+
+        while( it.hasNext() ) {
+            if( it.next().getValue() < now ) {
+                it.remove();
+            }
+        }
+        if( name.length() <= MAX_LENGTH && isFree(fold(name), existing) ) {
+            reserved.put(fold(name), now + RESERVATION_TIME);
+            return name;
+        }
+        String base = name;
+
+        if( base.length() > MAX_LENGTH - 3 ) {
+            base = base.substring(0, MAX_LENGTH - 3);
+        }
+        String folded = fold(base);
+
+        for( int idx=1; idx<=MAX_SUFFIX; idx++ ) {
+            if( isFree(folded + idx, existing) ) {
+                reserved.put(folded + idx, now + RESERVATION_TIME);
+                if( logger.isDebugEnabled() ) {
+                    logger.debug("Reserved " + base + idx + " in place of " + name);
+                }
+                return base + idx;
+            }
+        }
+        throw new CloudException("Invalid virtual machine name: " + name);
+    }
+
+    /**
+     * Frees a reserved name after the launch that reserved it finished. From then on a successful launch is
+     * represented by its server in the listings instead.
+     * @param name the name to release
+     */
+    public synchronized void release(@Nonnull String name) {
+        reserved.remove(fold(name));
+    }
+
+    private boolean isFree(@Nonnull String folded, @Nonnull Set<String> existing) {
+        return (!existing.contains(folded) && !reserved.containsKey(folded));
+    }
+}
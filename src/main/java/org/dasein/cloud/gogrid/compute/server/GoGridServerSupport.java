@@ -33,12 +33,16 @@ import org.dasein.cloud.compute.VirtualMachine;
 import org.dasein.cloud.compute.VirtualMachineProduct;
 import org.dasein.cloud.compute.VmState;
 import org.dasein.cloud.gogrid.GoGrid;
+import org.dasein.cloud.gogrid.GoGridCache;
+import org.dasein.cloud.gogrid.GoGridFuture;
+import org.dasein.cloud.gogrid.GoGridJobTracker;
+import org.dasein.cloud.gogrid.GoGridLookupCatalog;
 import org.dasein.cloud.gogrid.GoGridMethod;
+import org.dasein.cloud.gogrid.GoGridThreads;
+import org.dasein.cloud.gogrid.network.ip.GoGridIpLeases;
 import org.dasein.cloud.identity.ServiceAction;
-import org.dasein.cloud.network.AddressType;
-import org.dasein.cloud.network.IPVersion;
-import org.dasein.cloud.network.IpAddress;
 import org.dasein.util.CalendarWrapper;
+import org.dasein.util.JiteratorLoadException;
 import org.dasein.util.uom.storage.Gigabyte;
 import org.dasein.util.uom.storage.Storage;
 import org.json.JSONArray;
@@ -51,9 +55,20 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implements interaction with the GoGrid server APIs.
@@ -113,6 +128,37 @@ public class GoGridServerSupport extends AbstractVMSupport {
         return null;
     }
 
+    /**
+     * Looks up a single server by its name, which GoGrid treats as unique.
+     * @param name the name of the server
+     * @return the matching server or <code>null</code> if no such server exists
+     * @throws CloudException an error occurred looking up the server
+     * @throws InternalException an error occurred within Dasein Cloud looking up the server
+     */
+    private @Nullable VirtualMachine getVirtualMachineByName(@Nonnull String name) throws CloudException, InternalException {
+        GoGridMethod method = new GoGridMethod(provider);
+        JSONArray list = method.get(GoGridMethod.SERVER_GET, new GoGridMethod.Param("name", name));
+
+        if( list == null ) {
+            return null;
+        }
+        for( int i=0; i<list.length(); i++ ) {
+            try {
+                VirtualMachine vm = toServer(list.getJSONObject(i));
+
+                if( vm != null && name.equalsIgnoreCase(vm.getName()) ) {
+                    return vm;
+                }
+            }
+            catch( JSONException e ) {
+                logger.error("Failed to parse JSON: " + e.getMessage());
+                e.printStackTrace();
+                throw new CloudException(e);
+            }
+        }
+        return null;
+    }
+
     @Override
     public @Nonnull Requirement identifyImageRequirement(@Nonnull ImageClass cls) throws CloudException, InternalException {
         return (cls.equals(ImageClass.MACHINE) ? Requirement.REQUIRED : Requirement.NONE);
@@ -160,42 +206,330 @@ public class GoGridServerSupport extends AbstractVMSupport {
 
     @Override
     public boolean isSubscribed() throws CloudException, InternalException {
-        GoGridMethod method = new GoGridMethod(provider);
         String regionId = getRegionId(getContext());
 
-        JSONArray regionList = method.get(GoGridMethod.LOOKUP_LIST, new GoGridMethod.Param("lookup", "server.datacenter"));
+        return GoGridLookupCatalog.getInstance(provider).contains(GoGridLookupCatalog.SERVER_DATACENTER, regionId);
+    }
 
-        if( regionList == null ) {
-            return false;
+    @Override
+    public boolean isUserDataSupported() throws CloudException, InternalException {
+        return false;
+    }
+
+    static private final Random random = new Random();
+
+    static private final long POLL_INITIAL = 2000L;
+    static private final long POLL_MAXIMUM = 30000L;
+
+    static private final String[] STATUS_FIELDS = { "id", "state.id" };
+
+    /**
+     * The outcome of launching a single virtual machine as part of a bulk launch.
+     */
+    static public class LaunchResult {
+        private Throwable       error;
+        private String          name;
+        private VMLaunchOptions options;
+        private VirtualMachine  virtualMachine;
+
+        public LaunchResult(@Nonnull VMLaunchOptions options) { this.options = options; }
+
+        /**
+         * @return the reason the launch failed or <code>null</code> if it succeeded
+         */
+        public @Nullable Throwable getError() {
+            return error;
         }
-        for( int i=0; i<regionList.length(); i++ ) {
-            try {
-                JSONObject r = regionList.getJSONObject(i);
 
-                if( r.has("id") && regionId.equals(r.getString("id")) ) {
-                    return true;
+        /**
+         * @return the name under which the server was submitted to GoGrid, if it got that far
+         */
+        public @Nullable String getName() {
+            return name;
+        }
+
+        public @Nonnull VMLaunchOptions getOptions() {
+            return options;
+        }
+
+        /**
+         * @return the launched virtual machine or <code>null</code> if the launch failed
+         */
+        public @Nullable VirtualMachine getVirtualMachine() {
+            return virtualMachine;
+        }
+
+        public boolean isSuccess() {
+            return (virtualMachine != null);
+        }
+    }
+
+    @Override
+    public @Nonnull VirtualMachine launch(@Nonnull VMLaunchOptions withLaunchOptions) throws CloudException, InternalException {
+        LaunchResult result = new LaunchResult(withLaunchOptions);
+        GoGridIpLeases leases = GoGridIpLeases.getInstance(provider);
+        GoGridServerNames names = GoGridServerNames.getInstance(provider);
+        String reserved = validateName(withLaunchOptions.getHostName(), listNames());
+
+        try {
+            submit(result, reserved, leases);
+            if( result.virtualMachine == null ) {
+                String name = result.name;
+                long timeout = System.currentTimeMillis() + (CalendarWrapper.MINUTE * 15L);
+                long interval = POLL_INITIAL;
+
+                while( System.currentTimeMillis() < timeout ) {
+                    try { Thread.sleep(GoGridThreads.jitter(interval)); }
+                    catch( InterruptedException ignore ) { }
+                    VirtualMachine s = getVirtualMachineByName(name);
+
+                    if( s != null ) {
+                        if( logger.isDebugEnabled() ) {
+                            logger.debug("server=" + s);
+                        }
+                        return s;
+                    }
+                    interval = Math.min(interval * 2, POLL_MAXIMUM);
                 }
+                throw new CloudException("System timed out waiting for VM ID");
             }
-            catch( JSONException e ) {
-                logger.error("Unable to load data centers from GoGrid: " + e.getMessage());
-                e.printStackTrace();
-                throw new CloudException(e);
+            if( logger.isDebugEnabled() ) {
+                logger.debug("server=" + result.virtualMachine);
             }
+            return result.virtualMachine;
+        }
+        finally {
+            names.release(reserved);
         }
-        return false;
     }
 
-    @Override
-    public boolean isUserDataSupported() throws CloudException, InternalException {
-        return false;
+    /**
+     * Launches a virtual machine without holding a thread while GoGrid assigns it an ID. The <code>SERVER_ADD</code>
+     * call runs on the asynchronous executor. If GoGrid does not return the new server right away, it is looked up
+     * by name on a backoff schedule from the shared scheduler, with each lookup running briefly on a worker.
+     * @param withLaunchOptions the options for the virtual machine to launch
+     * @return a future that completes with the launched virtual machine
+     * @see #launch(VMLaunchOptions)
+     * @see GoGridThreads#getAsyncExecutor()
+     */
+    public @Nonnull Future<VirtualMachine> launchAsync(@Nonnull final VMLaunchOptions withLaunchOptions) {
+        final GoGridFuture<VirtualMachine> future = new GoGridFuture<VirtualMachine>();
+
+        GoGridThreads.getAsyncExecutor().submit(new Runnable() {
+            public void run() {
+                GoGridServerNames names = null;
+                String reserved = null;
+
+                try {
+                    LaunchResult result = new LaunchResult(withLaunchOptions);
+                    GoGridIpLeases leases = GoGridIpLeases.getInstance(provider);
+
+                    names = GoGridServerNames.getInstance(provider);
+                    reserved = validateName(withLaunchOptions.getHostName(), listNames());
+                    submit(result, reserved, leases);
+                    if( result.virtualMachine != null ) {
+                        names.release(reserved);
+                        future.complete(result.virtualMachine);
+                    }
+                    else {
+                        resolveServer(result.name, names, reserved, future, POLL_INITIAL, System.currentTimeMillis() + (CalendarWrapper.MINUTE * 15L));
+                    }
+                }
+                catch( Throwable t ) {
+                    if( reserved != null ) {
+                        names.release(reserved);
+                    }
+                    future.fail(t);
+                }
+            }
+        });
+        return future;
     }
 
-    static private final Random random = new Random();
+    /**
+     * Schedules a <code>SERVER_GET</code> lookup of a new server by name, rescheduling itself with a growing delay
+     * until GoGrid reports the server or the deadline passes. The name reservation is released once the lookup
+     * finishes either way.
+     * @param name the name of the new server
+     * @param names the registry holding the reservation for the launch
+     * @param reserved the name reserved for the launch
+     * @param future the future to complete with the server
+     * @param delay the delay before this lookup
+     * @param deadline the time after which to give up
+     */
+    private void resolveServer(@Nonnull final String name, @Nonnull final GoGridServerNames names, @Nonnull final String reserved, @Nonnull final GoGridFuture<VirtualMachine> future, final long delay, final long deadline) {
+        GoGridThreads.getScheduler().schedule(new Runnable() {
+            public void run() {
+                GoGridThreads.getWorkers().submit(new Runnable() {
+                    public void run() {
+                        try {
+                            VirtualMachine vm = getVirtualMachineByName(name);
+
+                            if( vm != null ) {
+                                names.release(reserved);
+                                future.complete(vm);
+                            }
+                            else if( System.currentTimeMillis() > deadline ) {
+                                names.release(reserved);
+                                future.fail(new CloudException("System timed out waiting for VM ID"));
+                            }
+                            else {
+                                resolveServer(name, names, reserved, future, Math.min(delay * 2, POLL_MAXIMUM), deadline);
+                            }
+                        }
+                        catch( Throwable t ) {
+                            names.release(reserved);
+                            future.fail(t);
+                        }
+                    }
+                });
+            }
+        }, GoGridThreads.jitter(delay), TimeUnit.MILLISECONDS);
+    }
 
-    @Override
-    public @Nonnull VirtualMachine launch(@Nonnull VMLaunchOptions withLaunchOptions) throws CloudException, InternalException {
+    /**
+     * Launches many virtual machines at once with up to 5 <code>SERVER_ADD</code> calls in flight.
+     * @param launchOptions the options for each virtual machine to launch
+     * @return the outcome of each launch in the same order as the options
+     * @throws CloudException an error occurred preparing the launches
+     * @throws InternalException an error occurred within Dasein Cloud preparing the launches
+     * @see #launchMany(java.util.List, int)
+     */
+    public @Nonnull List<LaunchResult> launchMany(@Nonnull List<VMLaunchOptions> launchOptions) throws CloudException, InternalException {
+        return launchMany(launchOptions, 5);
+    }
+
+    /**
+     * Launches many virtual machines at once. All names are validated against a single server listing, IP addresses
+     * are leased from a single pool, and servers that GoGrid does not immediately identify are tracked by one shared
+     * poller rather than one polling loop per server. A failure for one virtual machine does not stop the others;
+     * check each {@link LaunchResult} for its outcome.
+     * @param launchOptions the options for each virtual machine to launch
+     * @param parallelism the maximum number of <code>SERVER_ADD</code> calls to have in flight at once
+     * @return the outcome of each launch in the same order as the options
+     * @throws CloudException an error occurred preparing the launches
+     * @throws InternalException an error occurred within Dasein Cloud preparing the launches
+     */
+    public @Nonnull List<LaunchResult> launchMany(@Nonnull List<VMLaunchOptions> launchOptions, int parallelism) throws CloudException, InternalException {
+        ArrayList<LaunchResult> results = new ArrayList<LaunchResult>();
+
+        if( launchOptions.isEmpty() ) {
+            return results;
+        }
+        final GoGridIpLeases leases = GoGridIpLeases.getInstance(provider);
+        Set<String> taken = listNames();
+        GoGridServerNames names = GoGridServerNames.getInstance(provider);
+        ArrayList<String> reserved = new ArrayList<String>();
+
+        try {
+            ArrayList<Future<?>> submissions = new ArrayList<Future<?>>();
+            ExecutorService pool = GoGridThreads.newPool("GoGrid launcher", Math.max(1, Math.min(parallelism, launchOptions.size())));
+
+            try {
+                for( VMLaunchOptions options : launchOptions ) {
+                    final LaunchResult result = new LaunchResult(options);
+
+                    results.add(result);
+                    try {
+                        final String name = validateName(options.getHostName(), taken);
+
+                        reserved.add(name);
+
+                        submissions.add(pool.submit(new Runnable() {
+                            public void run() {
+                                try {
+                                    submit(result, name, leases);
+                                }
+                                catch( Throwable t ) {
+                                    logger.error("Failed to launch " + name + ": " + t.getMessage());
+                                    result.error = t;
+                                }
+                            }
+                        }));
+                    }
+                    catch( CloudException e ) {
+                        result.error = e;
+                    }
+                }
+                for( Future<?> f : submissions ) {
+                    try {
+                        f.get();
+                    }
+                    catch( InterruptedException e ) {
+                        Thread.currentThread().interrupt();
+                        throw new InternalException(e);
+                    }
+                    catch( ExecutionException e ) {
+                        logger.error("Launch task failed: " + e.getMessage());
+                    }
+                }
+            }
+            finally {
+                pool.shutdown();
+            }
+            final HashMap<String,LaunchResult> pending = new HashMap<String, LaunchResult>();
+
+            for( LaunchResult result : results ) {
+                if( result.error == null && result.virtualMachine == null ) {
+                    pending.put(result.name.toLowerCase(), result);
+                }
+            }
+            long timeout = System.currentTimeMillis() + (CalendarWrapper.MINUTE * 15L);
+            long interval = POLL_INITIAL;
+            String regionId = getRegionId(getContext());
+
+            while( !pending.isEmpty() && System.currentTimeMillis() < timeout ) {
+                try { Thread.sleep(GoGridThreads.jitter(interval)); }
+                catch( InterruptedException ignore ) { }
+                interval = Math.min(interval * 2, POLL_MAXIMUM);
+                // only the servers being waited on are converted, and the listing is abandoned once all are found
+                new GoGridMethod(provider).stream(GoGridMethod.SERVER_LIST, new GoGridMethod.ItemHandler() {
+                    public boolean handle(@Nonnull JSONObject item) throws CloudException, InternalException {
+                        try {
+                            LaunchResult result = (item.has("name") ? pending.get(item.getString("name").toLowerCase()) : null);
+
+                            if( result != null ) {
+                                VirtualMachine vm = toServer(item);
+
+                                if( vm != null ) {
+                                    result.virtualMachine = vm;
+                                    pending.remove(item.getString("name").toLowerCase());
+                                }
+                            }
+                        }
+                        catch( JSONException e ) {
+                            logger.error("Failed to parse JSON: " + e.getMessage());
+                            e.printStackTrace();
+                            throw new CloudException(e);
+                        }
+                        return !pending.isEmpty();
+                    }
+                }, new GoGridMethod.Param("datacenter", regionId));
+            }
+            for( LaunchResult result : pending.values() ) {
+                result.error = new CloudException("System timed out waiting for VM ID");
+            }
+            return results;
+        }
+        finally {
+            for( String name : reserved ) {
+                names.release(name);
+            }
+        }
+    }
+
+    /**
+     * Submits a single <code>SERVER_ADD</code> call, recording the name GoGrid used and, if GoGrid returned it,
+     * the new virtual machine in the specified result.
+     * @param result the result to record the launch in
+     * @param name the validated name for the server
+     * @param leases the source of the public IP address for the server
+     * @throws CloudException an error occurred launching the server
+     * @throws InternalException an error occurred within Dasein Cloud launching the server
+     */
+    private void submit(@Nonnull LaunchResult result, @Nonnull String name, @Nonnull GoGridIpLeases leases) throws CloudException, InternalException {
+        VMLaunchOptions withLaunchOptions = result.options;
         GoGridMethod.Param[] params = new GoGridMethod.Param[5];
-        String name = validateName(withLaunchOptions.getHostName());
 
         params[0] = new GoGridMethod.Param("name", name);
         params[1] = new GoGridMethod.Param("image", withLaunchOptions.getMachineImageId());
@@ -203,25 +537,6 @@ public class GoGridServerSupport extends AbstractVMSupport {
         //params[3] = new GoGridMethod.Param("datacenter", getRegionId(getContext()));
         params[3] = new GoGridMethod.Param("description", withLaunchOptions.getDescription());
 
-        IpAddress target = null;
-
-        for( IpAddress address : provider.getNetworkServices().getIpAddressSupport().listIpPool(IPVersion.IPV4, true) ) {
-            if( address.getAddressType().equals(AddressType.PUBLIC) ) {
-                target = address;
-                break;
-            }
-        }
-        if( target == null ) {
-            logger.error("Could not identify an available IP address for launch");
-            throw new CloudException("Unable to identify an available IP address");
-        }
-        else {
-        	params[4] = new GoGridMethod.Param("ip", target.getRawAddress().getIpAddress());
-        }
-        if( logger.isDebugEnabled() ) {
-            logger.debug("IP address for launch: " + target.getRawAddress().getIpAddress());
-        }
-        
         //TODO: Add support for specifying a private IP
         /*
         if( target.getAddressType().equals(AddressType.PRIVATE) ) {
@@ -230,28 +545,43 @@ public class GoGridServerSupport extends AbstractVMSupport {
         */
 
         GoGridMethod method = new GoGridMethod(provider);
+        JSONArray launches = null;
+        String target = null;
+        boolean launched = false;
 
-        if( logger.isDebugEnabled() ) {
-            logger.debug("Launching VM: " + withLaunchOptions.getHostName());
+        try {
+            target = leases.lease(provider);
+            params[4] = new GoGridMethod.Param("ip", target);
+            if( logger.isDebugEnabled() ) {
+                logger.debug("IP address for launch: " + target);
+                logger.debug("Launching VM: " + name);
+            }
+            launches = method.get(GoGridMethod.SERVER_ADD, params);
+            launched = true;
+        }
+        finally {
+            if( !launched ) {
+                if( target != null ) {
+                    leases.release(target);
+                }
+                GoGridServerNames.getInstance(provider).release(name);
+            }
         }
-        JSONArray launches = method.get(GoGridMethod.SERVER_ADD, params);
-        VirtualMachine vm = null;
-
         if( logger.isDebugEnabled() ) {
             logger.debug("launch list=" + launches);
             if( launches != null ) {
                 logger.debug("size=" + launches.length());
             }
         }
-        name = null;
+        result.name = name;
         if( launches != null && launches.length() == 1 ) {
             try {
                 JSONObject json = launches.getJSONObject(0);
 
                 if( json.has("name") ) {
-                    name = json.getString("name");
+                    result.name = json.getString("name");
                 }
-                vm = toServer(json);
+                result.virtualMachine = toServer(json);
             }
             catch( JSONException e ) {
                 logger.error("Launches did not come back in the form of a valid list: " + e.getMessage());
@@ -259,30 +589,6 @@ public class GoGridServerSupport extends AbstractVMSupport {
                 throw new CloudException(e);
             }
         }
-        if( vm == null ) {
-            if( name == null ) {
-                name = withLaunchOptions.getHostName();
-            }
-            long timeout = System.currentTimeMillis() + (CalendarWrapper.MINUTE * 15L);
-
-            while( System.currentTimeMillis() < timeout ) {
-                try { Thread.sleep(45000L); }
-                catch( InterruptedException ignore ) { }
-                for( VirtualMachine s : listVirtualMachines() ) {
-                    if( s.getName().equalsIgnoreCase(name) ) {
-                        if( logger.isDebugEnabled() ) {
-                            logger.debug("server=" + s);
-                        }
-                        return s;
-                    }
-                }
-            }
-            throw new CloudException("System timed out waiting for VM ID");
-        }
-        if( logger.isDebugEnabled() ) {
-            logger.debug("server=" + vm);
-        }
-        return vm;
     }
 
     @Override
@@ -290,7 +596,7 @@ public class GoGridServerSupport extends AbstractVMSupport {
         return Collections.emptyList();
     }
 
-    static private HashMap<String,Map<Architecture,Collection<VirtualMachineProduct>>> productCache;
+    static private final GoGridCache<Map<Architecture,Collection<VirtualMachineProduct>>> productCache = new GoGridCache<Map<Architecture,Collection<VirtualMachineProduct>>>(100, 6 * CalendarWrapper.HOUR, CalendarWrapper.HOUR);
 
     @Override
     public @Nonnull Iterable<VirtualMachineProduct> listProducts(@Nonnull Architecture architecture) throws InternalException, CloudException {
@@ -299,24 +605,25 @@ public class GoGridServerSupport extends AbstractVMSupport {
         if( ctx == null ) {
             throw new CloudException("No region was set for this request");
         }
-        if( productCache != null ) {
-            Map<Architecture,Collection<VirtualMachineProduct>> cached = productCache.get(ctx.getEndpoint());
-
-            if( cached != null ) {
-                Collection<VirtualMachineProduct> c = cached.get(architecture);
-
-                if( c == null ) {
-                    return Collections.emptyList();
-                }
-                return c;
+        String endpoint = ctx.getEndpoint();
+        Map<Architecture,Collection<VirtualMachineProduct>> cached = productCache.get(endpoint == null ? "" : endpoint, new GoGridCache.Loader<Map<Architecture,Collection<VirtualMachineProduct>>>() {
+            public @Nullable Map<Architecture,Collection<VirtualMachineProduct>> load() throws CloudException, InternalException {
+                return loadProducts();
             }
+        });
+        Collection<VirtualMachineProduct> products = (cached == null ? null : cached.get(architecture));
+
+        if( products == null ) {
+            return Collections.emptyList();
         }
-        GoGridMethod method = new GoGridMethod(provider);
+        return products;
+    }
 
-        JSONArray list = method.get(GoGridMethod.LOOKUP_LIST, new GoGridMethod.Param("lookup", "server.ram"));
+    private @Nullable Map<Architecture,Collection<VirtualMachineProduct>> loadProducts() throws InternalException, CloudException {
+        JSONArray list = GoGridLookupCatalog.getInstance(provider).getTable(GoGridLookupCatalog.SERVER_RAM);
 
-        if( list == null ) {
-            return Collections.emptyList();
+        if( list.length() < 1 ) {
+            return null;
         }
 
         ArrayList<VirtualMachineProduct> products = new ArrayList<VirtualMachineProduct>();
@@ -339,13 +646,7 @@ public class GoGridServerSupport extends AbstractVMSupport {
 
         map.put(Architecture.I32, Collections.unmodifiableList(products));
         map.put(Architecture.I64, Collections.unmodifiableList(products));
-        if( productCache == null ) {
-            HashMap<String,Map<Architecture,Collection<VirtualMachineProduct>>> pm = new HashMap<String, Map<Architecture, Collection<VirtualMachineProduct>>>();
-
-            pm.put(ctx.getEndpoint(), map);
-            productCache = pm;
-        }
-        return products;
+        return Collections.unmodifiableMap(map);
     }
 
     @Override
@@ -354,60 +655,191 @@ public class GoGridServerSupport extends AbstractVMSupport {
         String regionId = getRegionId(ctx);
 
         GoGridMethod method = new GoGridMethod(provider);
+        final ArrayList<ResourceStatus> servers = new ArrayList<ResourceStatus>();
 
-        JSONArray list = method.get(GoGridMethod.SERVER_LIST, new GoGridMethod.Param("datacenter", regionId));
-
-        if( list == null ) {
-            return Collections.emptyList();
-        }
-        ArrayList<ResourceStatus> servers = new ArrayList<ResourceStatus>();
-
-        for( int i=0; i<list.length(); i++ ) {
-            try {
-                ResourceStatus vm = toStatus(list.getJSONObject(i));
+        method.project(GoGridMethod.SERVER_LIST, STATUS_FIELDS, new GoGridMethod.ProjectionHandler() {
+            public boolean handle(@Nonnull String[] values) throws CloudException, InternalException {
+                ResourceStatus vm = toStatus(values);
 
                 if( vm != null ) {
                     servers.add(vm);
                 }
+                return true;
             }
-            catch( JSONException e ) {
-                logger.error("Failed to parse JSON: " + e.getMessage());
-                e.printStackTrace();
-                throw new CloudException(e);
-            }
-        }
+        }, new GoGridMethod.Param("datacenter", regionId));
         return servers;
     }
 
+    /**
+     * Lists the servers in the current region as the caller iterates. Each iteration streams its own
+     * <code>SERVER_LIST</code> call on a worker thread, which stays at most {@link #LISTING_BUFFER} elements ahead of
+     * the caller, and each server is only converted when {@link java.util.Iterator#next()} reaches it. The first
+     * iteration is started before this method returns so that a failed request is reported here as a
+     * {@link CloudException}; failures after that point surface from the iterator as a
+     * {@link JiteratorLoadException} wrapping the cause. An iteration abandoned for longer than
+     * {@link #LISTING_IDLE_TIMEOUT} stops the call and aborts the rest of the download.
+     * @return the servers in the current region
+     * @throws CloudException an error occurred requesting the listing
+     * @throws InternalException an error occurred within Dasein Cloud requesting the listing
+     */
     @Override
     public @Nonnull Iterable<VirtualMachine> listVirtualMachines() throws InternalException, CloudException {
         ProviderContext ctx = getContext();
-        String regionId = getRegionId(ctx);
+        final String regionId = getRegionId(ctx);
+        final ServerListing first = new ServerListing(regionId);
 
-        GoGridMethod method = new GoGridMethod(provider);
+        try {
+            first.hasNext();
+        }
+        catch( JiteratorLoadException e ) {
+            Throwable cause = e.getCause();
 
-        JSONArray list = method.get(GoGridMethod.SERVER_LIST, new GoGridMethod.Param("datacenter", regionId));
+            if( cause instanceof CloudException ) {
+                throw (CloudException)cause;
+            }
+            if( cause instanceof InternalException ) {
+                throw (InternalException)cause;
+            }
+            throw new CloudException(cause);
+        }
+        return new Iterable<VirtualMachine>() {
+            private boolean started;
 
-        if( list == null ) {
-            return Collections.emptyList();
+            public synchronized Iterator<VirtualMachine> iterator() {
+                if( !started ) {
+                    started = true;
+                    return first;
+                }
+                return new ServerListing(regionId);
+            }
+        };
+    }
+
+    static private final int  LISTING_BUFFER       = 100;
+    static private final long LISTING_IDLE_TIMEOUT = CalendarWrapper.MINUTE;
+
+    static private final Object END_OF_LISTING = new Object();
+
+    /**
+     * One pass over the server listing, fed from a <code>SERVER_LIST</code> stream running on a worker thread.
+     * The queue carries raw listing elements, then either {@link #END_OF_LISTING} or the failure that ended the
+     * stream.
+     */
+    private class ServerListing implements Iterator<VirtualMachine> {
+        private volatile boolean                   abandoned;
+        private boolean                            finished;
+        private VirtualMachine                     next;
+        private final ArrayBlockingQueue<Object>   queue = new ArrayBlockingQueue<Object>(LISTING_BUFFER);
+
+        public ServerListing(@Nonnull final String regionId) {
+            GoGridThreads.getWorkers().submit(new Runnable() {
+                public void run() {
+                    Object last = END_OF_LISTING;
+
+                    try {
+                        new GoGridMethod(provider).stream(GoGridMethod.SERVER_LIST, new GoGridMethod.ItemHandler() {
+                            public boolean handle(@Nonnull JSONObject item) {
+                                return offer(item);
+                            }
+                        }, new GoGridMethod.Param("datacenter", regionId));
+                    }
+                    catch( Throwable t ) {
+                        last = t;
+                    }
+                    offer(last);
+                }
+            });
         }
-        ArrayList<VirtualMachine> servers = new ArrayList<VirtualMachine>();
 
-        for( int i=0; i<list.length(); i++ ) {
+        private boolean offer(@Nonnull Object element) {
+            long idleSince = System.currentTimeMillis();
+
             try {
-                VirtualMachine vm = toServer(list.getJSONObject(i));
+                while( !abandoned ) {
+                    if( queue.offer(element, 1L, TimeUnit.SECONDS) ) {
+                        return true;
+                    }
+                    if( System.currentTimeMillis() - idleSince > LISTING_IDLE_TIMEOUT ) {
+                        logger.debug("Abandoning a server listing nobody is reading");
+                        abandoned = true;
+                    }
+                }
+            }
+            catch( InterruptedException e ) {
+                abandoned = true;
+            }
+            return false;
+        }
 
-                if( vm != null ) {
-                    servers.add(vm);
+        @Override
+        public synchronized boolean hasNext() {
+            while( next == null && !finished ) {
+                Object element;
+
+                try {
+                    element = queue.take();
+                }
+                catch( InterruptedException e ) {
+                    abandoned = true;
+                    finished = true;
+                    Thread.currentThread().interrupt();
+                    throw new JiteratorLoadException(e);
+                }
+                if( element == END_OF_LISTING ) {
+                    finished = true;
+                }
+                else if( element instanceof Throwable ) {
+                    finished = true;
+                    throw new JiteratorLoadException((Throwable)element);
+                }
+                else {
+                    try {
+                        next = toServer((JSONObject)element);
+                    }
+                    catch( CloudException e ) {
+                        abandoned = true;
+                        finished = true;
+                        throw new JiteratorLoadException(e);
+                    }
+                    catch( InternalException e ) {
+                        abandoned = true;
+                        finished = true;
+                        throw new JiteratorLoadException(e);
+                    }
                 }
             }
-            catch( JSONException e ) {
-                logger.error("Failed to parse JSON: " + e.getMessage());
-                e.printStackTrace();
-                throw new CloudException(e);
+            return (next != null);
+        }
+
+        @Override
+        public synchronized VirtualMachine next() {
+            if( !hasNext() ) {
+                throw new NoSuchElementException();
             }
+            VirtualMachine vm = next;
+
+            next = null;
+            return vm;
         }
-        return servers;
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Server listings are read-only");
+        }
+    }
+
+    /**
+     * Lists the virtual machines in the current region on the asynchronous executor.
+     * @return a future that completes with the virtual machines
+     * @see #listVirtualMachines()
+     * @see GoGridThreads#getAsyncExecutor()
+     */
+    public @Nonnull Future<Iterable<VirtualMachine>> listVirtualMachinesAsync() {
+        return GoGridThreads.getAsyncExecutor().submit(new Callable<Iterable<VirtualMachine>>() {
+            public Iterable<VirtualMachine> call() throws Exception {
+                return listVirtualMachines();
+            }
+        });
     }
 
     @Override
@@ -417,6 +849,24 @@ public class GoGridServerSupport extends AbstractVMSupport {
         method.get(GoGridMethod.SERVER_POWER, new GoGridMethod.Param("id", vmId), new GoGridMethod.Param("power", "restart"));
     }
 
+    /**
+     * Restarts a server without waiting for it to come back up.
+     * @param vmId the server to restart
+     * @return a future that completes with {@link VmState#RUNNING} once GoGrid has reported the server in some other
+     * state and then running again, or with the last reported state if that does not happen within 15 minutes;
+     * fails if GoGrid rejects the request
+     * @throws CloudException no region was set for this request
+     * @throws InternalException an error occurred within Dasein Cloud identifying the region
+     */
+    public @Nonnull Future<VmState> rebootAsync(@Nonnull final String vmId) throws CloudException, InternalException {
+        return async(vmId, VmState.RUNNING, true, null, new Callable<Void>() {
+            public Void call() throws Exception {
+                reboot(vmId);
+                return null;
+            }
+        });
+    }
+
     @Override
     public void start(@Nonnull String vmId) throws InternalException, CloudException {
         GoGridMethod method = new GoGridMethod(provider);
@@ -424,6 +874,23 @@ public class GoGridServerSupport extends AbstractVMSupport {
         method.get(GoGridMethod.SERVER_POWER, new GoGridMethod.Param("id", vmId), new GoGridMethod.Param("power", "start"));
     }
 
+    /**
+     * Starts a server without waiting for it to come up.
+     * @param vmId the server to start
+     * @return a future that completes with {@link VmState#RUNNING} once GoGrid reports the server running, or with
+     * the last reported state if that does not happen within 15 minutes; fails if GoGrid rejects the request
+     * @throws CloudException no region was set for this request
+     * @throws InternalException an error occurred within Dasein Cloud identifying the region
+     */
+    public @Nonnull Future<VmState> startAsync(@Nonnull final String vmId) throws CloudException, InternalException {
+        return async(vmId, VmState.RUNNING, false, null, new Callable<Void>() {
+            public Void call() throws Exception {
+                start(vmId);
+                return null;
+            }
+        });
+    }
+
     @Override
     public void stop(@Nonnull String vmId, /* ignored */ boolean force) throws InternalException, CloudException {
         GoGridMethod method = new GoGridMethod(provider);
@@ -431,6 +898,23 @@ public class GoGridServerSupport extends AbstractVMSupport {
         method.get(GoGridMethod.SERVER_POWER, new GoGridMethod.Param("id", vmId), new GoGridMethod.Param("power", "stop"));
     }
 
+    /**
+     * Stops a server without waiting for it to shut down.
+     * @param vmId the server to stop
+     * @return a future that completes with {@link VmState#STOPPED} once GoGrid reports the server stopped, or with
+     * the last reported state if that does not happen within 15 minutes; fails if GoGrid rejects the request
+     * @throws CloudException no region was set for this request
+     * @throws InternalException an error occurred within Dasein Cloud identifying the region
+     */
+    public @Nonnull Future<VmState> stopAsync(@Nonnull final String vmId) throws CloudException, InternalException {
+        return async(vmId, VmState.STOPPED, false, null, new Callable<Void>() {
+            public Void call() throws Exception {
+                stop(vmId, false);
+                return null;
+            }
+        });
+    }
+
     @Override
     public boolean supportsStartStop(@Nonnull VirtualMachine vm) {
         return true;
@@ -438,20 +922,77 @@ public class GoGridServerSupport extends AbstractVMSupport {
 
     @Override
     public void terminate(@Nonnull String vmId) throws InternalException, CloudException {
-        GoGridMethod method = new GoGridMethod(provider);
+        GoGridFuture.await(terminateAsync(vmId));
+    }
+
+    /**
+     * Terminates a server without waiting for GoGrid to finish deleting it.
+     * @param vmId the server to terminate
+     * @return a future that completes with {@link VmState#TERMINATED} once the server is gone, or with the last
+     * reported state if that does not happen within 15 minutes; fails if GoGrid rejects the request
+     * @throws CloudException no region was set for this request
+     * @throws InternalException an error occurred within Dasein Cloud identifying the region
+     */
+    public @Nonnull Future<VmState> terminateAsync(@Nonnull final String vmId) throws CloudException, InternalException {
+        return async(vmId, VmState.TERMINATED, false, GoGridMethod.SERVER_DELETE, new Callable<Void>() {
+            public Void call() throws Exception {
+                GoGridMethod method = new GoGridMethod(provider);
+
+                method.get(GoGridMethod.SERVER_DELETE, new GoGridMethod.Param("id", vmId));
+                return null;
+            }
+        });
+    }
 
-        method.get(GoGridMethod.SERVER_DELETE, new GoGridMethod.Param("id", vmId));
-        long timeout = System.currentTimeMillis() + (CalendarWrapper.MINUTE * 15L);
+    /**
+     * Issues a server operation on the asynchronous executor and then hands the wait for its outcome to the region's
+     * {@link GoGridServerWatcher}, so no thread is held while GoGrid carries the operation out. If GoGrid runs the
+     * operation as a job, the job is followed through the {@link GoGridJobTracker} at the same time and the future
+     * completes with whichever reports the outcome first, so a job that cannot be matched never delays the wait.
+     * @param vmId the server being operated on
+     * @param target the state that marks the operation as complete
+     * @param leaveFirst <code>true</code> if the server starts out in the target state and must leave it before
+     * reaching it again counts
+     * @param jobService the service whose job to track or <code>null</code> to watch the server state
+     * @param operation the API call that starts the operation
+     * @return a future that completes once the server reaches the target state, fails if the API call or its job
+     * fails, or completes with the last reported state after 15 minutes
+     * @throws CloudException no region was set for this request
+     * @throws InternalException an error occurred within Dasein Cloud identifying the region
+     */
+    private @Nonnull Future<VmState> async(@Nonnull final String vmId, @Nonnull final VmState target, final boolean leaveFirst, @Nullable final String jobService, @Nonnull final Callable<Void> operation) throws CloudException, InternalException {
+        final GoGridServerWatcher watcher = GoGridServerWatcher.getInstance(provider);
+        final GoGridJobTracker tracker = GoGridJobTracker.getInstance(provider);
+        final GoGridFuture<VmState> future = new GoGridFuture<VmState>();
 
-        while( timeout > System.currentTimeMillis() ) {
-            VirtualMachine vm = getVirtualMachine(vmId);
+        GoGridThreads.getAsyncExecutor().submit(new Runnable() {
+            public void run() {
+                try {
+                    operation.call();
+                    watcher.watch(provider, vmId, target, CalendarWrapper.MINUTE * 15L, future, leaveFirst);
+                    if( jobService == null ) {
+                        return;
+                    }
+                    tracker.track(provider, jobService, vmId, null, CalendarWrapper.MINUTE * 15L, new GoGridJobTracker.Listener() {
+                        public void untracked() {
+                            // the watcher carries on without the job
+                        }
 
-            if( vm == null || vm.getCurrentState().equals(VmState.TERMINATED) ) {
-                return;
+                        public void failed(@Nonnull CloudException cause) {
+                            future.fail(cause);
+                        }
+
+                        public void succeeded(@Nonnull JSONObject job) {
+                            future.complete(target);
+                        }
+                    });
+                }
+                catch( Throwable t ) {
+                    future.fail(t);
+                }
             }
-            try { Thread.sleep(15000L); }
-            catch( InterruptedException ignore ) { }
-        }
+        });
+        return future;
     }
 
     @Override
@@ -686,63 +1227,53 @@ public class GoGridServerSupport extends AbstractVMSupport {
         return vm;
     }
 
-    private @Nullable ResourceStatus toStatus(@Nullable JSONObject json) throws CloudException, InternalException {
-        if( json == null ) {
+    private @Nullable ResourceStatus toStatus(@Nonnull String[] values) throws CloudException {
+        String id = values[0];
+
+        if( id == null ) {
             return null;
         }
-        try {
-            String id;
-
-            if( json.has("id") ) {
-                id = json.getString("id");
+        if( values[1] != null ) {
+            try {
+                return new ResourceStatus(id, toState(Integer.parseInt(values[1])));
             }
-            else {
-                return null;
+            catch( NumberFormatException e ) {
+                logger.error("Invalid state for server " + id + ": " + values[1]);
+                throw new CloudException("Invalid state for server " + id + ": " + values[1]);
             }
-            if( json.has("state") ) {
-                JSONObject state = json.getJSONObject("state");
-
-                if( state.has("id") ) {
-                    return new ResourceStatus(id, toState(state.getInt("id")));
-                }
-            }
-            return new ResourceStatus(id, VmState.PENDING);
-        }
-        catch( JSONException e ) {
-            logger.error("Failed to parse JSON from the cloud: " + e.getMessage());
-            e.printStackTrace();
-            throw new CloudException(e);
         }
+        return new ResourceStatus(id, VmState.PENDING);
     }
 
-    private boolean exists(@Nonnull String name, @Nonnull Iterable<VirtualMachine> vms) {
-        for( VirtualMachine vm : vms ) {
-            if( vm.getName().equalsIgnoreCase(name) ) {
+    /**
+     * Builds a hashed index of the folded names of every server in the current region from a single listing.
+     * @return the folded server names
+     * @throws CloudException an error occurred listing the servers
+     * @throws InternalException an error occurred within Dasein Cloud listing the servers
+     */
+    private @Nonnull Set<String> listNames() throws CloudException, InternalException {
+        GoGridMethod method = new GoGridMethod(provider);
+        final HashSet<String> names = new HashSet<String>();
+
+        method.stream(GoGridMethod.SERVER_LIST, new GoGridMethod.ItemHandler() {
+            public boolean handle(@Nonnull JSONObject item) throws CloudException {
+                try {
+                    if( item.has("name") ) {
+                        names.add(GoGridServerNames.fold(item.getString("name")));
+                    }
+                }
+                catch( JSONException e ) {
+                    logger.error("Failed to parse JSON from the cloud: " + e.getMessage());
+                    e.printStackTrace();
+                    throw new CloudException(e);
+                }
                 return true;
             }
-        }
-        return false;
+        }, new GoGridMethod.Param("datacenter", getRegionId(getContext())));
+        return names;
     }
 
-    private @Nonnull String validateName(@Nonnull String name) throws CloudException, InternalException {
-        Iterable<VirtualMachine> current = listVirtualMachines();
-
-        if( name.length() < 21 && !exists(name, current) ) {
-            return name;
-        }
-        boolean available = true;
-        String base = name;
-
-        if( base.length() > 17 ) {
-            base = base.substring(0, 17);
-        }
-        for( int idx=1; idx<1000; idx++ ) {
-            String tmp = base + idx;
-
-            if( !exists(tmp, current) ) {
-                return tmp;
-            }
-        }
-        throw new CloudException("Invalid virtual machine name: " + name);
+    private @Nonnull String validateName(@Nonnull String name, @Nonnull Set<String> current) throws CloudException, InternalException {
+        return GoGridServerNames.getInstance(provider).reserve(name, current);
     }
 }
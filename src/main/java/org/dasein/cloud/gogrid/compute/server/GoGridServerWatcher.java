@@ -0,0 +1,253 @@
+/**
+ * Copyright (C) 2012-2013 enStratus Networks Inc
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.gogrid.compute.server;
+
+import org.apache.log4j.Logger;
+import org.dasein.cloud.CloudException;
+import org.dasein.cloud.InternalException;
+import org.dasein.cloud.ProviderContext;
+import org.dasein.cloud.ResourceStatus;
+import org.dasein.cloud.compute.VmState;
+import org.dasein.cloud.gogrid.GoGrid;
+import org.dasein.cloud.gogrid.GoGridFuture;
+import org.dasein.cloud.gogrid.GoGridThreads;
+
+import javax.annotation.Nonnull;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the servers in a single region for state changes on behalf of any number of waiting operations. Rather
+ * than each operation polling its own server, all pending waits are answered from one <code>SERVER_LIST</code> call
+ * per polling interval and provider, and the poller only runs while someone is waiting. Each wait is polled with
+ * the provider that started it, so waits started through different providers for the same region are each checked
+ * with their own context.
+ * @version 2013.07 initial version
+ * @since 2013.07
+ */
+public class GoGridServerWatcher {
+    static private final Logger logger = GoGrid.getLogger(GoGridServerWatcher.class);
+
+    static private final long INTERVAL = 15000L;
+
+    static private final ConcurrentHashMap<String,GoGridServerWatcher> watchers = new ConcurrentHashMap<String, GoGridServerWatcher>();
+
+    /**
+     * Provides the watcher for the endpoint, account, and region of the specified provider.
+     * @param provider the provider whose context identifies the region to watch
+     * @return the watcher for the region
+     * @throws CloudException no context or region was set for the provider
+     * @throws InternalException an error occurred within Dasein Cloud identifying the region
+     */
+    static public @Nonnull GoGridServerWatcher getInstance(@Nonnull GoGrid provider) throws CloudException, InternalException {
+        ProviderContext ctx = provider.getContext();
+
+        if( ctx == null ) {
+            throw new CloudException("No context was provided for this request");
+        }
+        if( ctx.getRegionId() == null ) {
+            throw new CloudException("No region was provided for this request");
+        }
+        String key;
+
+        try {
+            key = ctx.getEndpoint() + "|" + new String(ctx.getAccessPublic(), "utf-8") + "|" + ctx.getRegionId();
+        }
+        catch( UnsupportedEncodingException e ) {
+            e.printStackTrace();
+            throw new InternalException("UTF-8 not supported");
+        }
+        GoGridServerWatcher watcher = watchers.get(key);
+
+        if( watcher == null ) {
+            watcher = new GoGridServerWatcher();
+            GoGridServerWatcher existing = watchers.putIfAbsent(key, watcher);
+
+            if( existing != null ) {
+                watcher = existing;
+            }
+        }
+        return watcher;
+    }
+
+    static private class Waiter {
+        public long                     deadline;
+        public GoGridFuture<VmState>    future;
+        public boolean                  left;
+        public VmState                  lastState;
+        public GoGrid                   provider;
+        public VmState                  target;
+        public String                   vmId;
+    }
+
+    private boolean                 scheduled;
+    private final ArrayList<Waiter> waiters = new ArrayList<Waiter>();
+
+    private GoGridServerWatcher() { }
+
+    /**
+     * Waits for a server to reach the specified state. The resulting future completes with the target state once
+     * GoGrid reports it or, if the timeout expires first, with the last state GoGrid reported (<code>null</code> if
+     * no poll succeeded). A server that disappears from the listing is reported as
+     * {@link VmState#TERMINATED}.
+     * @param provider the provider to poll GoGrid with
+     * @param vmId the server to watch
+     * @param target the state to wait for
+     * @param timeout the maximum time in milliseconds to wait
+     * @return a future that completes when the server reaches the target state or the wait times out
+     */
+    public @Nonnull Future<VmState> watch(@Nonnull GoGrid provider, @Nonnull String vmId, @Nonnull VmState target, long timeout) {
+        return watch(provider, vmId, target, timeout, new GoGridFuture<VmState>());
+    }
+
+    /**
+     * Waits for a server to reach the specified state, completing a future the caller already handed out.
+     * @param provider the provider to poll GoGrid with
+     * @param vmId the server to watch
+     * @param target the state to wait for
+     * @param timeout the maximum time in milliseconds to wait
+     * @param future the future to complete
+     * @return the future
+     * @see #watch(GoGrid, String, VmState, long)
+     */
+    public @Nonnull Future<VmState> watch(@Nonnull GoGrid provider, @Nonnull String vmId, @Nonnull VmState target, long timeout, @Nonnull GoGridFuture<VmState> future) {
+        return watch(provider, vmId, target, timeout, future, false);
+    }
+
+    /**
+     * Waits for a server to reach the specified state, optionally ignoring that state until GoGrid has first
+     * reported the server in some other state. The latter is for operations such as a restart that start and end
+     * in the same state.
+     * @param provider the provider to poll GoGrid with
+     * @param vmId the server to watch
+     * @param target the state to wait for
+     * @param timeout the maximum time in milliseconds to wait
+     * @param future the future to complete
+     * @param leaveFirst <code>true</code> if the server must be seen in another state before the target state counts
+     * @return the future
+     * @see #watch(GoGrid, String, VmState, long)
+     */
+    public synchronized @Nonnull Future<VmState> watch(@Nonnull GoGrid provider, @Nonnull String vmId, @Nonnull VmState target, long timeout, @Nonnull GoGridFuture<VmState> future, boolean leaveFirst) {
+        Waiter waiter = new Waiter();
+
+        waiter.vmId = vmId;
+        waiter.target = target;
+        waiter.deadline = System.currentTimeMillis() + timeout;
+        waiter.future = future;
+        waiter.left = !leaveFirst;
+        waiter.provider = provider;
+        waiters.add(waiter);
+        if( !scheduled ) {
+            schedule();
+        }
+        return waiter.future;
+    }
+
+    private void schedule() {
+        scheduled = true;
+        GoGridThreads.getScheduler().schedule(new Runnable() {
+            public void run() {
+                GoGridThreads.getWorkers().submit(new Runnable() {
+                    public void run() {
+                        poll();
+                    }
+                });
+            }
+        }, INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    private void poll() {
+        ArrayList<Waiter> pending;
+
+        synchronized( this ) {
+            pending = new ArrayList<Waiter>(waiters);
+        }
+        IdentityHashMap<GoGrid,HashMap<String,VmState>> states = new IdentityHashMap<GoGrid, HashMap<String, VmState>>();
+
+        for( Waiter waiter : pending ) {
+            if( waiter.future.isDone() || states.containsKey(waiter.provider) ) {
+                continue;
+            }
+            HashMap<String,VmState> current = new HashMap<String, VmState>();
+
+            try {
+                for( ResourceStatus status : new GoGridServerSupport(waiter.provider).listVirtualMachineStatus() ) {
+                    current.put(status.getProviderResourceId(), (VmState)status.getResourceStatus());
+                }
+            }
+            catch( Throwable t ) {
+                logger.warn("Unable to poll server states: " + t.getMessage());
+                current = null;
+            }
+            states.put(waiter.provider, current);
+        }
+        long now = System.currentTimeMillis();
+        ArrayList<Waiter> done = new ArrayList<Waiter>();
+
+        for( Waiter waiter : pending ) {
+            if( waiter.future.isDone() ) {
+                done.add(waiter);
+                continue;
+            }
+            HashMap<String,VmState> current = states.get(waiter.provider);
+
+            if( current != null ) {
+                VmState state = current.get(waiter.vmId);
+
+                waiter.lastState = (state == null ? VmState.TERMINATED : state);
+                if( !waiter.lastState.equals(waiter.target) ) {
+                    waiter.left = true;
+                }
+                else if( waiter.left ) {
+                    waiter.future.complete(waiter.lastState);
+                    done.add(waiter);
+                    continue;
+                }
+            }
+            if( waiter.deadline < now ) {
+                if( logger.isDebugEnabled() ) {
+                    logger.debug("Timed out waiting for " + waiter.vmId + " to reach " + waiter.target + " (last state: " + waiter.lastState + ")");
+                }
+                waiter.future.complete(waiter.lastState);
+                done.add(waiter);
+            }
+        }
+        synchronized( this ) {
+            waiters.removeAll(done);
+            if( waiters.isEmpty() ) {
+                scheduled = false;
+            }
+            else {
+                schedule();
+            }
+        }
+    }
+
+    /**
+     * @return the number of waits currently pending in this region
+     */
+    public synchronized int getPendingCount() {
+        return waiters.size();
+    }
+}
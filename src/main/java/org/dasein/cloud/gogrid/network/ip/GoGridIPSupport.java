@@ -26,7 +26,9 @@ import org.dasein.cloud.ProviderContext;
 import org.dasein.cloud.Requirement;
 import org.dasein.cloud.ResourceStatus;
 import org.dasein.cloud.gogrid.GoGrid;
+import org.dasein.cloud.gogrid.GoGridLookupCatalog;
 import org.dasein.cloud.gogrid.GoGridMethod;
+import org.dasein.cloud.gogrid.GoGridThreads;
 import org.dasein.cloud.identity.ServiceAction;
 import org.dasein.cloud.network.AddressType;
 import org.dasein.cloud.network.IPVersion;
@@ -43,6 +45,7 @@ import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Locale;
+import java.util.concurrent.Callable;
 
 /**
  * Implements services in support for GoGrid IP addresses.
@@ -83,14 +86,47 @@ public class GoGridIPSupport implements IpAddressSupport {
     }
 
     @Override
-    public IpAddress getIpAddress(@Nonnull String addressId) throws InternalException, CloudException {
-        // TODO: optimize
-        for( IpAddress addr : listIpPool(IPVersion.IPV4, false) ) {
-            if( addr.getProviderIpAddressId().equals(addressId) ) {
-                return addr;
+    public IpAddress getIpAddress(@Nonnull final String addressId) throws InternalException, CloudException {
+        GoGridMethod method = new GoGridMethod(provider);
+        final JSONObject[] match = new JSONObject[1];
+
+        method.stream(GoGridMethod.IP_LIST, new GoGridMethod.ItemHandler() {
+            public boolean handle(@Nonnull JSONObject item) throws CloudException {
+                try {
+                    if( item.has("id") && addressId.equals(item.getString("id")) ) {
+                        match[0] = item;
+                        return false;
+                    }
+                    return true;
+                }
+                catch( JSONException e ) {
+                    logger.error("Failed to parse JSON: " + e.getMessage());
+                    e.printStackTrace();
+                    throw new CloudException(e);
+                }
             }
+        }, new GoGridMethod.Param("datacenter", getRegionId(getContext())));
+        if( match[0] == null ) {
+            return null;
         }
-        return null;
+        GoGridIpIndex owners;
+
+        try {
+            JSONObject state = (match[0].has("state") ? match[0].getJSONObject("state") : null);
+
+            if( state != null && state.has("id") && state.getInt("id") == 2 ) {
+                owners = GoGridIpIndex.find(method, getRegionId(getContext()), addressId);
+            }
+            else {
+                owners = new GoGridIpIndex();
+            }
+        }
+        catch( JSONException e ) {
+            logger.error("Failed to parse JSON: " + e.getMessage());
+            e.printStackTrace();
+            throw new CloudException(e);
+        }
+        return toAddress(match[0], owners);
     }
 
     private @Nonnull String getRegionId(@Nonnull ProviderContext ctx) throws CloudException {
@@ -149,29 +185,9 @@ public class GoGridIPSupport implements IpAddressSupport {
 
     @Override
     public boolean isSubscribed() throws CloudException, InternalException {
-        GoGridMethod method = new GoGridMethod(provider);
         String regionId = getRegionId(getContext());
 
-        JSONArray list = method.get(GoGridMethod.LOOKUP_LIST, new GoGridMethod.Param("lookup", "ip.datacenter"));
-
-        if( list == null ) {
-            return false;
-        }
-        for( int i=0; i<list.length(); i++ ) {
-            try {
-                JSONObject r = list.getJSONObject(i);
-
-                if( r.has("id") && regionId.equals(r.getString("id")) ) {
-                    return true;
-                }
-            }
-            catch( JSONException e ) {
-                logger.error("Unable to load data centers from GoGrid: " + e.getMessage());
-                e.printStackTrace();
-                throw new CloudException(e);
-            }
-        }
-        return false;
+        return GoGridLookupCatalog.getInstance(provider).contains(GoGridLookupCatalog.IP_DATACENTER, regionId);
     }
 
     // TODO: 1 is public, 2 is private
@@ -213,22 +229,23 @@ public class GoGridIPSupport implements IpAddressSupport {
             if( unassignedOnly ) {
                 params[1] = new GoGridMethod.Param("ip.state", "1");
             }
-            JSONArray list = method.get(GoGridMethod.IP_LIST, params);
+            final JSONArray[] list = new JSONArray[1];
+            final GoGridIpIndex[] owners = new GoGridIpIndex[1];
 
-            if( list == null ) {
+            if( unassignedOnly ) {
+                list[0] = method.get(GoGridMethod.IP_LIST, params);
+            }
+            else {
+                loadWithOwners(regionId, params, list, owners);
+            }
+            if( list[0] == null ) {
                 return Collections.emptyList();
             }
             ArrayList<IpAddress> addresses = new ArrayList<IpAddress>();
-            JSONArray vmList = null;
-            JSONArray lbList = null;
 
-            if( !unassignedOnly ) {
-                vmList = method.get(GoGridMethod.SERVER_LIST);
-                lbList = method.get(GoGridMethod.LB_LIST);
-            }
-            for( int i=0; i<list.length(); i++ ) {
+            for( int i=0; i<list[0].length(); i++ ) {
                 try {
-                    IpAddress ip = toAddress(list.getJSONObject(i), vmList, lbList);
+                    IpAddress ip = toAddress(list[0].getJSONObject(i), owners[0]);
 
                     if( ip != null ) {
                         addresses.add(ip);
@@ -251,23 +268,21 @@ public class GoGridIPSupport implements IpAddressSupport {
             ProviderContext ctx = getContext();
             String regionId = getRegionId(ctx);
 
-            GoGridMethod method = new GoGridMethod(provider);
-
             GoGridMethod.Param[] params = new GoGridMethod.Param[1];
 
             params[0] = new GoGridMethod.Param("datacenter", regionId);
-            JSONArray list = method.get(GoGridMethod.IP_LIST, params);
+            final JSONArray[] list = new JSONArray[1];
+            final GoGridIpIndex[] owners = new GoGridIpIndex[1];
 
-            if( list == null ) {
+            loadWithOwners(regionId, params, list, owners);
+            if( list[0] == null ) {
                 return Collections.emptyList();
             }
             ArrayList<ResourceStatus> addresses = new ArrayList<ResourceStatus>();
-            JSONArray vmList = method.get(GoGridMethod.SERVER_LIST);
-            JSONArray lbList = method.get(GoGridMethod.LB_LIST);
 
-            for( int i=0; i<list.length(); i++ ) {
+            for( int i=0; i<list[0].length(); i++ ) {
                 try {
-                    ResourceStatus ip = toStatus(list.getJSONObject(i), vmList, lbList);
+                    ResourceStatus ip = toStatus(list[0].getJSONObject(i), owners[0]);
 
                     if( ip != null ) {
                         addresses.add(ip);
@@ -339,7 +354,31 @@ public class GoGridIPSupport implements IpAddressSupport {
         return new String[0];
     }
 
-    private @Nullable IpAddress toAddress(@Nullable JSONObject json, @Nullable JSONArray vmList, @Nullable JSONArray lbList) throws CloudException, InternalException {
+    /**
+     * Loads an IP listing and the index of the servers and load balancers that own the addresses in it, with all
+     * of the underlying calls running in parallel.
+     * @param regionId the region being listed
+     * @param params the parameters for the IP listing
+     * @param list receives the IP listing
+     * @param owners receives the owner index
+     * @throws CloudException an error occurred loading the listings
+     * @throws InternalException an error occurred within Dasein Cloud loading the listings
+     */
+    private void loadWithOwners(@Nonnull final String regionId, @Nonnull final GoGridMethod.Param[] params, @Nonnull final JSONArray[] list, @Nonnull final GoGridIpIndex[] owners) throws CloudException, InternalException {
+        GoGridThreads.runAll(new Callable<Void>() {
+            public Void call() throws CloudException, InternalException {
+                list[0] = new GoGridMethod(provider).get(GoGridMethod.IP_LIST, params);
+                return null;
+            }
+        }, new Callable<Void>() {
+            public Void call() throws CloudException, InternalException {
+                owners[0] = GoGridIpIndex.load(provider, regionId);
+                return null;
+            }
+        });
+    }
+
+    private @Nullable IpAddress toAddress(@Nullable JSONObject json, @Nullable GoGridIpIndex owners) throws CloudException, InternalException {
         if( json == null ) {
             return null;
         }
@@ -368,40 +407,15 @@ public class GoGridIPSupport implements IpAddressSupport {
                 if( state.has("id") ) {
                     int s = state.getInt("id");
 
-                    if( s != 1 && (vmList == null || lbList == null) ) {
+                    if( s != 1 && owners == null ) {
                         return null;
                     }
                     else if( s == 2 ) {
-                        for( int i =0; i<vmList.length(); i++ ) {
-                            JSONObject vm = vmList.getJSONObject(i);
-
-                            if( !vm.has("id") ) {
-                                continue;
-                            }
-                            if( vm.has("ip") ) {
-                                JSONObject ip = vm.getJSONObject("ip");
-
-                                if( ip.has("id") && ip.getString("id").equals(address.getProviderIpAddressId()) ) {
-                                    address.setServerId(vm.getString("id"));
-                                }
-                            }
-                        }
-                        if( address.getServerId() == null ) {
-                            for( int i=0; i<lbList.length(); i++ ) {
-                                JSONObject lb = lbList.getJSONObject(i);
+                        String id = address.getProviderIpAddressId();
 
-                                if( !lb.has("id") ) {
-                                    continue;
-                                }
-                                if( lb.has("virtualip.ip") ) {
-                                    JSONObject ip = lb.getJSONObject("virtualip.ip");
-
-
-                                    if( ip.has("id") && ip.getString("id").equals(address.getProviderIpAddressId()) ) {
-                                        address.setProviderLoadBalancerId(lb.getString("id"));
-                                    }
-                                }
-                            }
+                        address.setServerId(owners.getServerId(id));
+                        if( address.getServerId() == null ) {
+                            address.setProviderLoadBalancerId(owners.getLoadBalancerId(id));
                         }
                     }
                 }
@@ -415,7 +429,7 @@ public class GoGridIPSupport implements IpAddressSupport {
         return address;
     }
 
-    private @Nullable ResourceStatus toStatus(@Nullable JSONObject json, @Nullable JSONArray vmList, @Nullable JSONArray lbList) throws CloudException, InternalException {
+    private @Nullable ResourceStatus toStatus(@Nullable JSONObject json, @Nullable GoGridIpIndex owners) throws CloudException, InternalException {
         if( json == null ) {
             return null;
         }
@@ -435,41 +449,11 @@ public class GoGridIPSupport implements IpAddressSupport {
                 if( state.has("id") ) {
                     int s = state.getInt("id");
 
-                    if( s != 1 && (vmList == null || lbList == null) ) {
+                    if( s != 1 && owners == null ) {
                         return null;
                     }
-                    else if( s == 2 ) {
-                        for( int i =0; i<vmList.length(); i++ ) {
-                            JSONObject vm = vmList.getJSONObject(i);
-
-                            if( !vm.has("id") ) {
-                                continue;
-                            }
-                            if( vm.has("ip") ) {
-                                JSONObject ip = vm.getJSONObject("ip");
-
-                                if( ip.has("id") && ip.getString("id").equals(id) ) {
-                                    available = false;
-                                }
-                            }
-                        }
-                        if( available == null ) {
-                            for( int i=0; i<lbList.length(); i++ ) {
-                                JSONObject lb = lbList.getJSONObject(i);
-
-                                if( !lb.has("id") ) {
-                                    continue;
-                                }
-                                if( lb.has("virtualip.ip") ) {
-                                    JSONObject ip = lb.getJSONObject("virtualip.ip");
-
-
-                                    if( ip.has("id") && ip.getString("id").equals(id) ) {
-                                        available = false;
-                                    }
-                                }
-                            }
-                        }
+                    else if( s == 2 && (owners.getServerId(id) != null || owners.getLoadBalancerId(id) != null) ) {
+                        available = false;
                     }
                 }
             }
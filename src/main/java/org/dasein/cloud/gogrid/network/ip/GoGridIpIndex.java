@@ -0,0 +1,155 @@
+/**
+ * Copyright (C) 2012-2013 enStratus Networks Inc
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.gogrid.network.ip;
+
+import org.dasein.cloud.CloudException;
+import org.dasein.cloud.InternalException;
+import org.dasein.cloud.gogrid.GoGrid;
+import org.dasein.cloud.gogrid.GoGridMethod;
+import org.dasein.cloud.gogrid.GoGridThreads;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.concurrent.Callable;
+
+/**
+ * Maps GoGrid IP address IDs to the servers and load balancers that own them so that an IP listing can be
+ * joined against the server and load balancer listings in a single pass.
+ * @version 2013.07 initial version
+ * @since 2013.07
+ */
+public class GoGridIpIndex {
+    /**
+     * Builds an index from the current server and load balancer listings for a region, loading both listings in
+     * parallel.
+     * @param provider the provider to use for loading the listings
+     * @param regionId the region whose servers and load balancers should be indexed
+     * @return an index of all IP owners in the region
+     * @throws CloudException an error occurred loading the listings from GoGrid
+     * @throws InternalException an error occurred within Dasein Cloud building the index
+     */
+    static public @Nonnull GoGridIpIndex load(@Nonnull final GoGrid provider, @Nonnull final String regionId) throws CloudException, InternalException {
+        final GoGridIpIndex index = new GoGridIpIndex();
+
+        GoGridThreads.runAll(new Callable<Void>() {
+            public Void call() throws CloudException, InternalException {
+                new GoGridMethod(provider).stream(GoGridMethod.SERVER_LIST, new GoGridMethod.ItemHandler() {
+                    public boolean handle(@Nonnull JSONObject item) throws CloudException {
+                        index.indexServer(item);
+                        return true;
+                    }
+                }, new GoGridMethod.Param("datacenter", regionId));
+                return null;
+            }
+        }, new Callable<Void>() {
+            public Void call() throws CloudException, InternalException {
+                new GoGridMethod(provider).stream(GoGridMethod.LB_LIST, new GoGridMethod.ItemHandler() {
+                    public boolean handle(@Nonnull JSONObject item) throws CloudException {
+                        index.indexLoadBalancer(item);
+                        return true;
+                    }
+                }, new GoGridMethod.Param("datacenter", regionId));
+                return null;
+            }
+        });
+        return index;
+    }
+
+    /**
+     * Resolves the owner of a single IP address, reading the server and load balancer listings only until the
+     * owner is found.
+     * @param method the method to use for loading the listings
+     * @param regionId the region of the IP address
+     * @param ipAddressId the IP address whose owner is sought
+     * @return an index holding at most the owner of the specified address
+     * @throws CloudException an error occurred loading the listings from GoGrid
+     * @throws InternalException an error occurred within Dasein Cloud building the index
+     */
+    static public @Nonnull GoGridIpIndex find(@Nonnull GoGridMethod method, @Nonnull String regionId, @Nonnull final String ipAddressId) throws CloudException, InternalException {
+        final GoGridIpIndex index = new GoGridIpIndex();
+
+        method.stream(GoGridMethod.SERVER_LIST, new GoGridMethod.ItemHandler() {
+            public boolean handle(@Nonnull JSONObject item) throws CloudException {
+                index.indexServer(item);
+                return (index.getServerId(ipAddressId) == null);
+            }
+        }, new GoGridMethod.Param("datacenter", regionId));
+        if( index.getServerId(ipAddressId) == null ) {
+            method.stream(GoGridMethod.LB_LIST, new GoGridMethod.ItemHandler() {
+                public boolean handle(@Nonnull JSONObject item) throws CloudException {
+                    index.indexLoadBalancer(item);
+                    return (index.getLoadBalancerId(ipAddressId) == null);
+                }
+            }, new GoGridMethod.Param("datacenter", regionId));
+        }
+        return index;
+    }
+
+    private HashMap<String,String> loadBalancers = new HashMap<String, String>();
+    private HashMap<String,String> servers       = new HashMap<String, String>();
+
+    public GoGridIpIndex() { }
+
+    public @Nullable String getLoadBalancerId(@Nonnull String ipAddressId) {
+        return loadBalancers.get(ipAddressId);
+    }
+
+    public @Nullable String getServerId(@Nonnull String ipAddressId) {
+        return servers.get(ipAddressId);
+    }
+
+    public void indexLoadBalancer(@Nonnull JSONObject lb) throws CloudException {
+        try {
+            if( !lb.has("id") || !lb.has("virtualip") ) {
+                return;
+            }
+            JSONObject vip = lb.getJSONObject("virtualip");
+
+            if( vip.has("ip") ) {
+                JSONObject ip = vip.getJSONObject("ip");
+
+                if( ip.has("id") ) {
+                    loadBalancers.put(ip.getString("id"), lb.getString("id"));
+                }
+            }
+        }
+        catch( JSONException e ) {
+            throw new CloudException(e);
+        }
+    }
+
+    public void indexServer(@Nonnull JSONObject server) throws CloudException {
+        try {
+            if( !server.has("id") || !server.has("ip") ) {
+                return;
+            }
+            JSONObject ip = server.getJSONObject("ip");
+
+            if( ip.has("id") ) {
+                servers.put(ip.getString("id"), server.getString("id"));
+            }
+        }
+        catch( JSONException e ) {
+            throw new CloudException(e);
+        }
+    }
+}
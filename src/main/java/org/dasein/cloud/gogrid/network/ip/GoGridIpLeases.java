@@ -0,0 +1,168 @@
+/**
+ * Copyright (C) 2012-2013 enStratus Networks Inc
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.gogrid.network.ip;
+
+import org.apache.log4j.Logger;
+import org.dasein.cloud.CloudException;
+import org.dasein.cloud.InternalException;
+import org.dasein.cloud.ProviderContext;
+import org.dasein.cloud.gogrid.GoGrid;
+import org.dasein.cloud.gogrid.GoGridMethod;
+import org.dasein.util.CalendarWrapper;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import javax.annotation.Nonnull;
+import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out unassigned public IP addresses to server launches in this JVM so that concurrent launches each get
+ * a distinct address. The pool of free addresses is refilled from a single <code>IP_LIST</code> call whenever it
+ * runs dry or goes stale. A leased address is withheld from the pool until its lease expires, by which time
+ * GoGrid reports it as assigned, or until the launch that leased it releases it after a failure.
+ * @version 2013.07 initial version
+ * @since 2013.07
+ */
+public class GoGridIpLeases {
+    static private final Logger logger = GoGrid.getLogger(GoGridIpLeases.class);
+
+    static private final long LEASE_TIME = 10L * CalendarWrapper.MINUTE;
+    static private final long POOL_TTL   = CalendarWrapper.MINUTE;
+
+    static private final ConcurrentHashMap<String,GoGridIpLeases> leases = new ConcurrentHashMap<String, GoGridIpLeases>();
+
+    /**
+     * Provides the lease manager for the endpoint, account, and region of the specified provider.
+     * @param provider the provider whose context identifies the address pool
+     * @return the lease manager for the address pool
+     * @throws CloudException no context or region was set for the provider
+     * @throws InternalException an error occurred within Dasein Cloud identifying the address pool
+     */
+    static public @Nonnull GoGridIpLeases getInstance(@Nonnull GoGrid provider) throws CloudException, InternalException {
+        ProviderContext ctx = provider.getContext();
+
+        if( ctx == null ) {
+            throw new CloudException("No context was provided for this request");
+        }
+        if( ctx.getRegionId() == null ) {
+            throw new CloudException("No region was provided for this request");
+        }
+        String key;
+
+        try {
+            key = ctx.getEndpoint() + "|" + new String(ctx.getAccessPublic(), "utf-8") + "|" + ctx.getRegionId();
+        }
+        catch( UnsupportedEncodingException e ) {
+            e.printStackTrace();
+            throw new InternalException("UTF-8 not supported");
+        }
+        GoGridIpLeases pool = leases.get(key);
+
+        if( pool == null ) {
+            pool = new GoGridIpLeases(ctx.getRegionId());
+            GoGridIpLeases existing = leases.putIfAbsent(key, pool);
+
+            if( existing != null ) {
+                pool = existing;
+            }
+        }
+        return pool;
+    }
+
+    private final LinkedList<String>   available = new LinkedList<String>();
+    private final HashMap<String,Long> leased    = new HashMap<String, Long>();
+    private long                       refilledAt;
+    private final String               regionId;
+
+    private GoGridIpLeases(@Nonnull String regionId) {
+        this.regionId = regionId;
+    }
+
+    /**
+     * Leases a free public IP address, refilling the pool from GoGrid if necessary.
+     * @param provider the provider to use should the pool need refilling
+     * @return the leased IP address
+     * @throws CloudException no free IP address is available or an error occurred refilling the pool
+     * @throws InternalException an error occurred within Dasein Cloud refilling the pool
+     */
+    public synchronized @Nonnull String lease(@Nonnull GoGrid provider) throws CloudException, InternalException {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String,Long>> it = leased.entrySet().iterator();
+
+        while( it.hasNext() ) {
+            if( it.next().getValue() < now ) {
+                it.remove();
+            }
+        }
+        if( available.isEmpty() || refilledAt + POOL_TTL < now ) {
+            refill(provider);
+        }
+        String address = available.poll();
+
+        if( address == null ) {
+            throw new CloudException("Unable to identify an available IP address");
+        }
+        leased.put(address, now + LEASE_TIME);
+        if( logger.isDebugEnabled() ) {
+            logger.debug("Leased " + address + " (" + available.size() + " remaining in pool)");
+        }
+        return address;
+    }
+
+    /**
+     * Returns a leased address to the pool after the launch that leased it failed.
+     * @param address the address to release
+     */
+    public synchronized void release(@Nonnull String address) {
+        if( leased.remove(address) != null && !available.contains(address) ) {
+            available.addFirst(address);
+        }
+    }
+
+    private void refill(@Nonnull GoGrid provider) throws CloudException, InternalException {
+        GoGridMethod method = new GoGridMethod(provider);
+
+        available.clear();
+        method.stream(GoGridMethod.IP_LIST, new GoGridMethod.ItemHandler() {
+            public boolean handle(@Nonnull JSONObject item) throws CloudException {
+                try {
+                    if( item.has("ip") && item.has("public") && item.getBoolean("public") ) {
+                        String address = item.getString("ip");
+
+                        if( !leased.containsKey(address) ) {
+                            available.add(address);
+                        }
+                    }
+                }
+                catch( JSONException e ) {
+                    logger.error("Failed to parse JSON: " + e.getMessage());
+                    e.printStackTrace();
+                    throw new CloudException(e);
+                }
+                return true;
+            }
+        }, new GoGridMethod.Param("datacenter", regionId), new GoGridMethod.Param("ip.state", "1"));
+        refilledAt = System.currentTimeMillis();
+    }
+}
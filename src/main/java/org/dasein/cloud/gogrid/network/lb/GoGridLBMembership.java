@@ -0,0 +1,231 @@
+/**
+ * Copyright (C) 2012-2013 enStratus Networks Inc
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.gogrid.network.lb;
+
+import org.apache.log4j.Logger;
+import org.dasein.cloud.CloudException;
+import org.dasein.cloud.InternalException;
+import org.dasein.cloud.ProviderContext;
+import org.dasein.cloud.gogrid.GoGrid;
+import org.dasein.cloud.gogrid.GoGridFuture;
+import org.dasein.cloud.gogrid.GoGridThreads;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queues membership changes for a single load balancer. Adds and removes requested within a short window under
+ * the same endpoint, account, and region are merged into one batch, whichever load balancer support instance they
+ * come through, and applied with a single read-modify-write ending in one <code>LB_EDIT</code>. A request that would add a server another request in the open batch removes, or the
+ * reverse, starts a new batch instead, so every caller's change is applied as asked and in order. Only one batch
+ * runs at a time for a given load balancer, so concurrent changes in this JVM are never lost to one another, and
+ * a queue is dropped once it has drained.
+ * @version 2013.07 initial version
+ * @since 2013.07
+ */
+class GoGridLBMembership {
+    static private final Logger logger = GoGrid.getLogger(GoGridLBMembership.class);
+
+    static private final long WINDOW = 500L;
+
+    static private final ConcurrentHashMap<String,GoGridLBMembership> queues = new ConcurrentHashMap<String, GoGridLBMembership>();
+
+    /**
+     * Queues servers to be added to or removed from a load balancer.
+     * @param provider the provider whose context identifies the account
+     * @param support the load balancer support to apply the change with
+     * @param loadBalancerId the load balancer to change
+     * @param add the servers to add
+     * @param remove the servers to remove
+     * @return a future that completes once the <code>LB_EDIT</code> carrying this change has been applied
+     * @throws CloudException no context was set for this request
+     * @throws InternalException an error occurred within Dasein Cloud identifying the account
+     */
+    static @Nonnull Future<Void> submit(@Nonnull GoGrid provider, @Nonnull GoGridLBSupport support, @Nonnull String loadBalancerId, @Nonnull Collection<String> add, @Nonnull Collection<String> remove) throws CloudException, InternalException {
+        ProviderContext ctx = provider.getContext();
+
+        if( ctx == null ) {
+            throw new CloudException("No context was provided for this request");
+        }
+        String scope;
+        String key;
+
+        try {
+            key = ctx.getEndpoint() + "|" + new String(ctx.getAccessPublic(), "utf-8") + "|" + loadBalancerId;
+            scope = ctx.getEndpoint() + "|" + new String(ctx.getAccessPublic(), "utf-8") + "|" + ctx.getRegionId();
+        }
+        catch( UnsupportedEncodingException e ) {
+            e.printStackTrace();
+            throw new InternalException("UTF-8 not supported");
+        }
+        while( true ) {
+            GoGridLBMembership queue = queues.get(key);
+
+            if( queue == null ) {
+                queue = new GoGridLBMembership(key, loadBalancerId);
+                GoGridLBMembership existing = queues.putIfAbsent(key, queue);
+
+                if( existing != null ) {
+                    queue = existing;
+                }
+            }
+            Future<Void> future = queue.offer(scope, support, add, remove);
+
+            if( future != null ) {
+                return future;
+            }
+            // the queue drained and retired between the lookup and the offer
+        }
+    }
+
+    static private class Batch {
+        public final HashMap<String,Boolean>       changes = new HashMap<String, Boolean>();
+        public final String                        scope;
+        public final GoGridLBSupport               support;
+        public final ArrayList<GoGridFuture<Void>> waiters = new ArrayList<GoGridFuture<Void>>();
+
+        public Batch(@Nonnull String scope, @Nonnull GoGridLBSupport support) {
+            this.scope = scope;
+            this.support = support;
+        }
+
+        public boolean accepts(@Nonnull String scope, @Nonnull Collection<String> add, @Nonnull Collection<String> remove) {
+            if( !this.scope.equals(scope) ) {
+                return false;
+            }
+            for( String id : add ) {
+                if( Boolean.FALSE.equals(changes.get(id)) ) {
+                    return false;
+                }
+            }
+            for( String id : remove ) {
+                if( Boolean.TRUE.equals(changes.get(id)) ) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final ArrayList<Batch> batches = new ArrayList<Batch>();
+    private final String           key;
+    private final String           loadBalancerId;
+    private boolean                retired;
+    private boolean                scheduled;
+
+    private GoGridLBMembership(@Nonnull String key, @Nonnull String loadBalancerId) {
+        this.key = key;
+        this.loadBalancerId = loadBalancerId;
+    }
+
+    private synchronized @Nullable Future<Void> offer(@Nonnull String scope, @Nonnull GoGridLBSupport support, @Nonnull Collection<String> add, @Nonnull Collection<String> remove) {
+        if( retired ) {
+            return null;
+        }
+        GoGridFuture<Void> future = new GoGridFuture<Void>();
+        Batch batch = (batches.isEmpty() ? null : batches.get(batches.size()-1));
+
+        if( batch == null || !batch.accepts(scope, add, remove) ) {
+            batch = new Batch(scope, support);
+            batches.add(batch);
+        }
+        for( String id : add ) {
+            batch.changes.put(id, true);
+        }
+        for( String id : remove ) {
+            batch.changes.put(id, false);
+        }
+        batch.waiters.add(future);
+        if( !scheduled ) {
+            schedule();
+        }
+        return future;
+    }
+
+    private void schedule() {
+        scheduled = true;
+        GoGridThreads.getScheduler().schedule(new Runnable() {
+            public void run() {
+                GoGridThreads.getWorkers().submit(new Runnable() {
+                    public void run() {
+                        flush();
+                    }
+                });
+            }
+        }, WINDOW, TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        Batch batch;
+
+        synchronized( this ) {
+            // later batches stay open to new requests until they reach the front
+            batch = batches.remove(0);
+        }
+        ArrayList<String> add = new ArrayList<String>();
+        ArrayList<String> remove = new ArrayList<String>();
+
+        for( Map.Entry<String,Boolean> entry : batch.changes.entrySet() ) {
+            if( entry.getValue() ) {
+                add.add(entry.getKey());
+            }
+            else {
+                remove.add(entry.getKey());
+            }
+        }
+        if( logger.isDebugEnabled() ) {
+            logger.debug("Applying " + batch.waiters.size() + " membership changes to " + loadBalancerId + " (+" + add.size() + "/-" + remove.size() + ")");
+        }
+        Throwable error = null;
+
+        try {
+            batch.support.applyMembership(loadBalancerId, add, remove);
+        }
+        catch( Throwable t ) {
+            logger.error("Failed to update load balancer " + loadBalancerId + ": " + t.getMessage());
+            error = t;
+        }
+        for( GoGridFuture<Void> future : batch.waiters ) {
+            if( error == null ) {
+                future.complete(null);
+            }
+            else {
+                future.fail(error);
+            }
+        }
+        synchronized( this ) {
+            if( batches.isEmpty() ) {
+                scheduled = false;
+                retired = true;
+                queues.remove(key, this);
+            }
+            else {
+                schedule();
+            }
+        }
+    }
+}
@@ -24,9 +24,13 @@ import org.dasein.cloud.InternalException;
 import org.dasein.cloud.OperationNotSupportedException;
 import org.dasein.cloud.ProviderContext;
 import org.dasein.cloud.ResourceStatus;
-import org.dasein.cloud.compute.VirtualMachine;
 import org.dasein.cloud.gogrid.GoGrid;
+import org.dasein.cloud.gogrid.GoGridCache;
+import org.dasein.cloud.gogrid.GoGridFuture;
+import org.dasein.cloud.gogrid.GoGridJobTracker;
+import org.dasein.cloud.gogrid.GoGridLookupCatalog;
 import org.dasein.cloud.gogrid.GoGridMethod;
+import org.dasein.cloud.gogrid.GoGridThreads;
 import org.dasein.cloud.identity.ServiceAction;
 import org.dasein.cloud.network.*;
 import org.dasein.util.CalendarWrapper;
@@ -36,13 +40,21 @@ import org.json.JSONObject;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Twisting of the GoGrid load balancer concept to match the Dasein Cloud load balancer API.
@@ -54,6 +66,11 @@ import java.util.TreeSet;
 public class GoGridLBSupport extends AbstractLoadBalancerSupport<GoGrid> {
     static private final Logger logger = GoGrid.getLogger(GoGridLBSupport.class);
 
+    static private final long POLL_INITIAL = 2000L;
+    static private final long POLL_MAXIMUM = 30000L;
+
+    static private final String[] STATUS_FIELDS = { "id", "state.id" };
+
     private GoGrid provider;
 
     public GoGridLBSupport(GoGrid provider) {
@@ -71,17 +88,30 @@ public class GoGridLBSupport extends AbstractLoadBalancerSupport<GoGrid> {
         if( serverIdsToAdd == null || serverIdsToAdd.length < 1 ) {
             return;
         }
-        LoadBalancer lb = getLoadBalancer(toLoadBalancerId);
+        GoGridFuture.await(GoGridLBMembership.submit(provider, this, toLoadBalancerId, Arrays.asList(serverIdsToAdd), Collections.<String>emptyList()));
+    }
+
+    /**
+     * Applies a merged batch of membership changes with a single read of the load balancer and a single
+     * <code>LB_EDIT</code>. Called by {@link GoGridLBMembership}, which never runs two batches for the same load
+     * balancer at once.
+     * @param loadBalancerId the load balancer to change
+     * @param add the servers to add
+     * @param remove the servers to remove
+     * @throws CloudException the load balancer does not exist or an error occurred changing it
+     * @throws InternalException an error occurred within Dasein Cloud changing the load balancer
+     */
+    void applyMembership(@Nonnull String loadBalancerId, @Nonnull Collection<String> add, @Nonnull Collection<String> remove) throws CloudException, InternalException {
+        LoadBalancer lb = getLoadBalancer(loadBalancerId, true);
 
         if( lb == null ) {
-            throw new CloudException("No such load balancer: " + toLoadBalancerId);
+            throw new CloudException("No such load balancer: " + loadBalancerId);
         }
         TreeSet<String> serverIds = new TreeSet<String>();
 
-        if( lb.getProviderServerIds() != null ) {
-            Collections.addAll(serverIds, lb.getProviderServerIds());
-        }
-        Collections.addAll(serverIds, serverIdsToAdd);
+        Collections.addAll(serverIds, getProviderServerIds(lb));
+        serverIds.addAll(add);
+        serverIds.removeAll(remove);
         edit(lb, serverIds);
     }
 
@@ -95,24 +125,17 @@ public class GoGridLBSupport extends AbstractLoadBalancerSupport<GoGrid> {
         ArrayList<GoGridMethod.Param> params = new ArrayList<GoGridMethod.Param>();
 
         params.add(new GoGridMethod.Param("id", lb.getProviderLoadBalancerId()));
+        Map<String,String> realIps = getRealIps(serverIds);
         int idx = 1;
 
         for( String sid : serverIds ) {
-            VirtualMachine vm = provider.getComputeServices().getVirtualMachineSupport().getVirtualMachine(sid);
-
-            if( vm != null ) {
-                String ip = vm.getProviderAssignedIpAddressId();
+            String addr = realIps.get(sid);
 
-                if( ip != null ) {
-                    IpAddress addr = provider.getNetworkServices().getIpAddressSupport().getIpAddress(ip);
-
-                    if( addr != null ) {
-                        for( LbListener listener : listeners ) {
-                            params.add(new GoGridMethod.Param("realiplist." + idx + ".ip", addr.getAddress()));
-                            params.add(new GoGridMethod.Param("realiplist." + idx + ".port", String.valueOf(listener.getPrivatePort())));
-                            idx++;
-                        }
-                    }
+            if( addr != null ) {
+                for( LbListener listener : listeners ) {
+                    params.add(new GoGridMethod.Param("realiplist." + idx + ".ip", addr));
+                    params.add(new GoGridMethod.Param("realiplist." + idx + ".port", String.valueOf(listener.getPrivatePort())));
+                    idx++;
                 }
             }
         }
@@ -124,8 +147,11 @@ public class GoGridLBSupport extends AbstractLoadBalancerSupport<GoGrid> {
         method.get(GoGridMethod.LB_EDIT, params.toArray(new GoGridMethod.Param[params.size()]));
     }
 
-    @Override
-    public String create(String name, String description, String addressId, String[] dataCenterIds, LbListener[] listeners, String[] serverIds) throws CloudException, InternalException {
+    /**
+     * Validates the request and submits the <code>LB_ADD</code> call.
+     * @return the load balancer record GoGrid returned, which may not yet carry an ID
+     */
+    private @Nonnull JSONObject submitCreate(@Nullable String name, @Nullable String description, @Nonnull String addressId, @Nullable LbListener[] listeners, @Nullable String[] serverIds) throws CloudException, InternalException {
         IpAddress address = provider.getNetworkServices().getIpAddressSupport().getIpAddress(addressId);
 
         if( address == null ) {
@@ -167,24 +193,20 @@ public class GoGridLBSupport extends AbstractLoadBalancerSupport<GoGrid> {
         params.add(new GoGridMethod.Param("loadbalancer.type", String.valueOf(algorithm.equals(LbAlgorithm.LEAST_CONN) ? 2 : 1)));
         int idx = 1;
 
-        if( serverIds != null ) {
-            for( String sid : serverIds ) {
-                VirtualMachine vm = provider.getComputeServices().getVirtualMachineSupport().getVirtualMachine(sid);
-
-                if( vm != null ) {
-                    String ip = vm.getProviderAssignedIpAddressId();
+        if( serverIds != null && serverIds.length > 0 ) {
+            Map<String,String> realIps = getRealIps(Arrays.asList(serverIds));
 
-                    if( ip != null ) {
-                        IpAddress rip = provider.getNetworkServices().getIpAddressSupport().getIpAddress(ip);
+            for( String sid : serverIds ) {
+                if( realIps.containsKey(sid) ) {
+                    String rip = realIps.get(sid);
 
-                        if( rip == null ) {
-                            throw new CloudException("No such IP address for " + sid + ": " + ip);
-                        }
-                        for( LbListener listener : listeners ) {
-                            params.add(new GoGridMethod.Param("realiplist." + idx + ".ip", rip.getAddress()));
-                            params.add(new GoGridMethod.Param("realiplist." + idx + ".port", String.valueOf(listener.getPrivatePort())));
-                            idx++;
-                        }
+                    if( rip == null ) {
+                        throw new CloudException("No such IP address for " + sid);
+                    }
+                    for( LbListener listener : listeners ) {
+                        params.add(new GoGridMethod.Param("realiplist." + idx + ".ip", rip));
+                        params.add(new GoGridMethod.Param("realiplist." + idx + ".port", String.valueOf(listener.getPrivatePort())));
+                        idx++;
                     }
                 }
             }
@@ -206,29 +228,11 @@ public class GoGridLBSupport extends AbstractLoadBalancerSupport<GoGrid> {
             try {
                 JSONObject json = creates.getJSONObject(0);
 
-                if( json != null && json.has("name") ) {
-                    name = json.getString("name");
-                }
-                long timeout = System.currentTimeMillis() + (CalendarWrapper.MINUTE * 15L);
-
-                while( json != null && !json.has("id") ) {
-                    if( System.currentTimeMillis() > timeout ) {
-                        throw new CloudException("Timed out waiting for GoGrid to provide a load balancer ID");
-                    }
-                    try { Thread.sleep(30000L); }
-                    catch( InterruptedException ignore ) { }
-                    creates = method.get(GoGridMethod.LB_GET, new GoGridMethod.Param("name", name));
-                    if( creates != null && creates.length() == 1 ) {
-                        json = creates.getJSONObject(0);
-                    }
-                }
-                LoadBalancer lb = toLoadBalancer(json, method.get(GoGridMethod.SERVER_LIST));
-
-                if( lb != null ) {
-                    if( logger.isDebugEnabled() ) {
-                        logger.debug("LB=" + lb);
+                if( json != null ) {
+                    if( !json.has("name") ) {
+                        json.put("name", name);
                     }
-                    return lb.getProviderLoadBalancerId();
+                    return json;
                 }
             }
             catch( JSONException e ) {
@@ -241,20 +245,167 @@ public class GoGridLBSupport extends AbstractLoadBalancerSupport<GoGrid> {
     }
 
     @Override
-    public LoadBalancer getLoadBalancer(String loadBalancerId) throws CloudException, InternalException {
-        GoGridMethod method = new GoGridMethod(provider);
+    public String create(String name, String description, String addressId, String[] dataCenterIds, LbListener[] listeners, String[] serverIds) throws CloudException, InternalException {
+        return GoGridFuture.await(createAsync(name, description, addressId, listeners, serverIds));
+    }
 
-        JSONArray list = method.get(GoGridMethod.LB_GET, new GoGridMethod.Param("id", loadBalancerId));
+    /**
+     * Creates a load balancer without holding a thread while GoGrid assigns it an ID. The <code>LB_ADD</code> call
+     * runs on the asynchronous executor. If GoGrid does not return an ID right away, the load balancer is looked up
+     * by name with <code>LB_GET</code> on a backoff schedule from the shared scheduler. The <code>LB_ADD</code> job
+     * is tracked at the same time and triggers an extra lookup as soon as it succeeds, so the ID is found by
+     * whichever comes first, and a job that cannot be matched never delays the lookups.
+     * @param name the name of the new load balancer
+     * @param description a description of the new load balancer
+     * @param addressId the ID of the IP address the load balancer listens on
+     * @param listeners the listeners for the load balancer
+     * @param serverIds the servers behind the load balancer
+     * @return a future that completes with the ID of the new load balancer
+     * @throws CloudException no context was set for this request
+     * @throws InternalException an error occurred within Dasein Cloud identifying the account
+     */
+    public @Nonnull Future<String> createAsync(@Nullable final String name, @Nullable final String description, @Nonnull final String addressId, @Nullable final LbListener[] listeners, @Nullable final String[] serverIds) throws CloudException, InternalException {
+        final GoGridJobTracker tracker = GoGridJobTracker.getInstance(provider);
+        final GoGridFuture<String> future = new GoGridFuture<String>();
+
+        GoGridThreads.getAsyncExecutor().submit(new Runnable() {
+            public void run() {
+                try {
+                    JSONObject json = submitCreate(name, description, addressId, listeners, serverIds);
+
+                    if( json.has("id") ) {
+                        future.complete(json.getString("id"));
+                        return;
+                    }
+                    final String lbName = json.getString("name");
+                    final long deadline = System.currentTimeMillis() + (CalendarWrapper.MINUTE * 15L);
 
-        if( list == null ) {
-            return null;
+                    resolveId(lbName, future, POLL_INITIAL, deadline);
+                    tracker.track(provider, GoGridMethod.LB_ADD, null, lbName, CalendarWrapper.MINUTE * 15L, new GoGridJobTracker.Listener() {
+                        public void untracked() {
+                            // the scheduled lookups carry on without the job
+                        }
+
+                        public void failed(@Nonnull CloudException cause) {
+                            future.fail(cause);
+                        }
+
+                        public void succeeded(@Nonnull JSONObject job) {
+                            GoGridThreads.getWorkers().submit(new Runnable() {
+                                public void run() {
+                                    try {
+                                        lookupId(lbName, future);
+                                    }
+                                    catch( Throwable t ) {
+                                        logger.warn("Failed to look up load balancer " + lbName + ": " + t.getMessage());
+                                    }
+                                }
+                            });
+                        }
+                    });
+                }
+                catch( Throwable t ) {
+                    future.fail(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Looks up a new load balancer by name with a single <code>LB_GET</code> and completes the future with its ID
+     * if GoGrid has assigned one.
+     * @return <code>true</code> if the future was completed
+     */
+    private boolean lookupId(@Nonnull String name, @Nonnull GoGridFuture<String> future) throws CloudException, InternalException, JSONException {
+        GoGridMethod method = new GoGridMethod(provider);
+        JSONArray list = method.get(GoGridMethod.LB_GET, new GoGridMethod.Param("name", name));
+
+        if( list != null && list.length() == 1 && list.getJSONObject(0).has("id") ) {
+            future.complete(list.getJSONObject(0).getString("id"));
+            return true;
         }
+        return false;
+    }
 
-        JSONArray servers = method.get(GoGridMethod.SERVER_LIST);
+    /**
+     * Schedules an <code>LB_GET</code> lookup of a new load balancer by name, rescheduling itself with a growing
+     * delay until GoGrid reports an ID, the future is completed some other way, or the deadline passes.
+     */
+    private void resolveId(@Nonnull final String name, @Nonnull final GoGridFuture<String> future, final long delay, final long deadline) {
+        GoGridThreads.getScheduler().schedule(new Runnable() {
+            public void run() {
+                if( future.isDone() ) {
+                    return;
+                }
+                GoGridThreads.getWorkers().submit(new Runnable() {
+                    public void run() {
+                        try {
+                            if( future.isDone() || lookupId(name, future) ) {
+                                return;
+                            }
+                            if( System.currentTimeMillis() > deadline ) {
+                                future.fail(new CloudException("Timed out waiting for GoGrid to provide a load balancer ID"));
+                            }
+                            else {
+                                resolveId(name, future, Math.min(Math.max(delay * 2, POLL_INITIAL), POLL_MAXIMUM), deadline);
+                            }
+                        }
+                        catch( Throwable t ) {
+                            future.fail(t);
+                        }
+                    }
+                });
+            }
+        }, GoGridThreads.jitter(delay), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public LoadBalancer getLoadBalancer(String loadBalancerId) throws CloudException, InternalException {
+        return getLoadBalancer(loadBalancerId, false);
+    }
 
-        for( int i=0; i<list.length(); i++ ) {
+    /**
+     * Fetches a load balancer with a single <code>LB_GET</code>, either resolving its servers up front from a fresh
+     * server listing fetched in parallel or leaving them to be resolved from the cached server index on first
+     * access.
+     * @param loadBalancerId the load balancer to fetch
+     * @param resolveServers <code>true</code> if the servers must be resolved now and reflect the current server
+     * listing, in which case a failure to list them fails this call
+     * @return the matching load balancer or <code>null</code> if no such load balancer exists
+     * @throws CloudException an error occurred fetching the load balancer or, if requested, its servers
+     * @throws InternalException an error occurred within Dasein Cloud fetching the load balancer
+     */
+    public @Nullable LoadBalancer getLoadBalancer(@Nonnull final String loadBalancerId, boolean resolveServers) throws CloudException, InternalException {
+        final String regionId = getRegionId(getContext());
+        final JSONArray[] list = new JSONArray[1];
+        HashMap<String,String> servers = null;
+
+        if( resolveServers ) {
+            final HashMap<String,String> index = new HashMap<String, String>();
+
+            GoGridThreads.runAll(new Callable<Void>() {
+                public Void call() throws CloudException, InternalException {
+                    list[0] = new GoGridMethod(provider).get(GoGridMethod.LB_GET, new GoGridMethod.Param("id", loadBalancerId));
+                    return null;
+                }
+            }, new Callable<Void>() {
+                public Void call() throws CloudException, InternalException {
+                    indexServers(regionId, index);
+                    return null;
+                }
+            });
+            servers = index;
+        }
+        else {
+            list[0] = new GoGridMethod(provider).get(GoGridMethod.LB_GET, new GoGridMethod.Param("id", loadBalancerId));
+        }
+        if( list[0] == null ) {
+            return null;
+        }
+        for( int i=0; i<list[0].length(); i++ ) {
             try {
-                LoadBalancer lb = toLoadBalancer(list.getJSONObject(i), servers);
+                LoadBalancer lb = toLoadBalancer(list[0].getJSONObject(i), servers);
 
                 if( lb != null && lb.getProviderLoadBalancerId().equals(loadBalancerId) ) {
                     return lb;
@@ -309,29 +460,87 @@ public class GoGridLBSupport extends AbstractLoadBalancerSupport<GoGrid> {
         String regionId = getRegionId(ctx);
 
         GoGridMethod method = new GoGridMethod(provider);
+        final ArrayList<ResourceStatus> loadBalancers = new ArrayList<ResourceStatus>();
 
-        JSONArray list = method.get(GoGridMethod.LB_LIST, new GoGridMethod.Param("datacenter", regionId));
-
-        if( list == null ) {
-            return Collections.emptyList();
-        }
-        ArrayList<ResourceStatus> loadBalancers = new ArrayList<ResourceStatus>();
-
-        for( int i=0; i<list.length(); i++ ) {
-            try {
-                ResourceStatus lb = toStatus(list.getJSONObject(i));
+        method.project(GoGridMethod.LB_LIST, STATUS_FIELDS, new GoGridMethod.ProjectionHandler() {
+            public boolean handle(@Nonnull String[] values) throws CloudException, InternalException {
+                ResourceStatus lb = toStatus(values);
 
                 if( lb != null ) {
                     loadBalancers.add(lb);
                 }
+                return true;
             }
-            catch( JSONException e ) {
-                logger.error("Failed to parse JSON: " + e.getMessage());
-                e.printStackTrace();
-                throw new CloudException(e);
+        }, new GoGridMethod.Param("datacenter", regionId));
+        return loadBalancers;
+    }
+
+    /**
+     * Resolves the real IP addresses for the specified servers using one server listing and, only if some servers
+     * do not carry their address inline, one IP listing.
+     * @param serverIds the servers to resolve
+     * @return a map of server ID to IP address for every server in the region that has an assigned IP; the value is
+     * <code>null</code> if the server has an assigned IP ID that is not in the IP pool
+     * @throws CloudException an error occurred loading the listings from GoGrid
+     * @throws InternalException an error occurred within Dasein Cloud resolving the addresses
+     */
+    private @Nonnull Map<String,String> getRealIps(@Nonnull Collection<String> serverIds) throws CloudException, InternalException {
+        final HashMap<String,String> realIps = new HashMap<String, String>();
+
+        if( serverIds.isEmpty() ) {
+            return realIps;
+        }
+        final HashSet<String> members = new HashSet<String>(serverIds);
+        final HashMap<String,String> ipIds = new HashMap<String, String>();
+        String regionId = getRegionId(getContext());
+        GoGridMethod method = new GoGridMethod(provider);
+
+        method.stream(GoGridMethod.SERVER_LIST, new GoGridMethod.ItemHandler() {
+            public boolean handle(@Nonnull JSONObject item) throws CloudException {
+                try {
+                    if( item.has("id") && members.contains(item.getString("id")) && item.has("ip") ) {
+                        String sid = item.getString("id");
+                        JSONObject ip = item.getJSONObject("ip");
+
+                        if( ip.has("ip") ) {
+                            realIps.put(sid, ip.getString("ip"));
+                        }
+                        else if( ip.has("id") ) {
+                            realIps.put(sid, null);
+                            ipIds.put(ip.getString("id"), sid);
+                        }
+                    }
+                }
+                catch( JSONException e ) {
+                    logger.error("Failed to parse JSON: " + e.getMessage());
+                    e.printStackTrace();
+                    throw new CloudException(e);
+                }
+                return (realIps.size() < members.size());
             }
+        }, new GoGridMethod.Param("datacenter", regionId));
+        if( !ipIds.isEmpty() ) {
+            method.stream(GoGridMethod.IP_LIST, new GoGridMethod.ItemHandler() {
+                public boolean handle(@Nonnull JSONObject item) throws CloudException {
+                    try {
+                        if( item.has("id") && item.has("ip") ) {
+                            String sid = ipIds.remove(item.getString("id"));
+
+                            if( sid != null ) {
+                                realIps.put(sid, item.getString("ip"));
+                            }
+                        }
+                    }
+                    catch( JSONException e ) {
+                        logger.error("Failed to parse JSON: " + e.getMessage());
+                        e.printStackTrace();
+                        throw new CloudException(e);
+                    }
+                    return !ipIds.isEmpty();
+                }
+            }, new GoGridMethod.Param("datacenter", regionId));
         }
-        return loadBalancers;
+        return realIps;
     }
 
     private @Nonnull String getRegionId(@Nonnull ProviderContext ctx) throws CloudException {
@@ -380,29 +589,9 @@ public class GoGridLBSupport extends AbstractLoadBalancerSupport<GoGrid> {
 
     @Override
     public boolean isSubscribed() throws CloudException, InternalException {
-        GoGridMethod method = new GoGridMethod(provider);
         String regionId = getRegionId(getContext());
 
-        JSONArray list = method.get(GoGridMethod.LOOKUP_LIST, new GoGridMethod.Param("lookup", "loadbalancer.datacenter"));
-
-        if( list == null ) {
-            return false;
-        }
-        for( int i=0; i<list.length(); i++ ) {
-            try {
-                JSONObject r = list.getJSONObject(i);
-
-                if( r.has("id") && regionId.equals(r.getString("id")) ) {
-                    return true;
-                }
-            }
-            catch( JSONException e ) {
-                logger.error("Unable to load data centers from GoGrid: " + e.getMessage());
-                e.printStackTrace();
-                throw new CloudException(e);
-            }
-        }
-        return false;
+        return GoGridLookupCatalog.getInstance(provider).contains(GoGridLookupCatalog.LOADBALANCER_DATACENTER, regionId);
     }
 
     @Override
@@ -413,21 +602,30 @@ public class GoGridLBSupport extends AbstractLoadBalancerSupport<GoGrid> {
     @Override
     public Iterable<LoadBalancer> listLoadBalancers() throws CloudException, InternalException {
         ProviderContext ctx = getContext();
-        String regionId = getRegionId(ctx);
+        final String regionId = getRegionId(ctx);
 
-        GoGridMethod method = new GoGridMethod(provider);
-
-        JSONArray servers = method.get(GoGridMethod.SERVER_LIST);
-        JSONArray list = method.get(GoGridMethod.LB_LIST, new GoGridMethod.Param("datacenter", regionId));
+        final JSONArray[] list = new JSONArray[1];
+        final HashMap<String,String> servers = new HashMap<String, String>();
 
-        if( list == null ) {
+        GoGridThreads.runAll(new Callable<Void>() {
+            public Void call() throws CloudException, InternalException {
+                list[0] = new GoGridMethod(provider).get(GoGridMethod.LB_LIST, new GoGridMethod.Param("datacenter", regionId));
+                return null;
+            }
+        }, new Callable<Void>() {
+            public Void call() throws CloudException, InternalException {
+                indexServers(regionId, servers);
+                return null;
+            }
+        });
+        if( list[0] == null ) {
             return Collections.emptyList();
         }
         ArrayList<LoadBalancer> loadBalancers = new ArrayList<LoadBalancer>();
 
-        for( int i=0; i<list.length(); i++ ) {
+        for( int i=0; i<list[0].length(); i++ ) {
             try {
-                LoadBalancer lb = toLoadBalancer(list.getJSONObject(i), servers);
+                LoadBalancer lb = toLoadBalancer(list[0].getJSONObject(i), servers);
 
                 if( lb != null ) {
                     loadBalancers.add(lb);
@@ -459,20 +657,7 @@ public class GoGridLBSupport extends AbstractLoadBalancerSupport<GoGrid> {
         if( serverIdsToRemove == null || serverIdsToRemove.length < 1 ) {
             return;
         }
-        LoadBalancer lb = getLoadBalancer(fromLoadBalancerId);
-
-        if( lb == null ) {
-            throw new CloudException("No such load balancer: " + fromLoadBalancerId);
-        }
-        TreeSet<String> serverIds = new TreeSet<String>();
-
-        if( lb.getProviderServerIds() != null ) {
-            Collections.addAll(serverIds, lb.getProviderServerIds());
-        }
-        for( String id : serverIdsToRemove ) {
-            serverIds.remove(id);
-        }
-        edit(lb, serverIds);
+        GoGridFuture.await(GoGridLBMembership.submit(provider, this, fromLoadBalancerId, Collections.<String>emptyList(), Arrays.asList(serverIdsToRemove)));
     }
 
     @Override
@@ -492,58 +677,160 @@ public class GoGridLBSupport extends AbstractLoadBalancerSupport<GoGrid> {
         return LbAlgorithm.ROUND_ROBIN;
     }
 
-    private @Nullable ResourceStatus toStatus(@Nullable JSONObject json) throws CloudException, InternalException {
-        if( json == null ) {
+    private @Nullable ResourceStatus toStatus(@Nonnull String[] values) throws CloudException {
+        String loadBalancerId = values[0];
+
+        if( loadBalancerId == null ) {
             return null;
         }
+        LoadBalancerState state = LoadBalancerState.PENDING;
 
-        LoadBalancerState state = null;
-        String loadBalancerId = null;
+        if( values[1] != null ) {
+            /*
+            {"id":1,"description":"Loadbalancer is enabled and on.","name":"On","object":"option"},
+            {"id":2,"description":"Loadbalancer is disabled and off.","name":"Off","object":"option"},
+            {"id":3,"description":"Loadbalancer is enabled, but real ips are unreachable.","name":"Unavailable","object":"option"},
+            {"id":4,"description":"Loadbalancer state is unknown.","name":"Unknown","object":"option"}
+             */
+            try {
+                switch( Integer.parseInt(values[1]) ) {
+                    case 1: case 3: state = LoadBalancerState.ACTIVE; break;
+                    case 2: case 4: state = LoadBalancerState.PENDING; break;
+                }
+            }
+            catch( NumberFormatException e ) {
+                logger.error("Invalid state for load balancer " + loadBalancerId + ": " + values[1]);
+                throw new CloudException("Invalid state for load balancer " + loadBalancerId + ": " + values[1]);
+            }
+        }
+        return new ResourceStatus(loadBalancerId, state);
+    }
+
+    /**
+     * Provides the servers behind a load balancer, resolving them from the cached server index first if they were
+     * deferred when the load balancer was read.
+     * @param lb the load balancer
+     * @return the servers behind the load balancer
+     * @throws CloudException an error occurred listing the servers
+     * @throws InternalException an error occurred within Dasein Cloud listing the servers
+     */
+    public @Nonnull String[] getProviderServerIds(@Nonnull LoadBalancer lb) throws CloudException, InternalException {
+        if( lb instanceof GoGridLoadBalancer ) {
+            return ((GoGridLoadBalancer)lb).resolveServerIds();
+        }
+        String[] ids = lb.getProviderServerIds();
+
+        return (ids == null ? new String[0] : ids);
+    }
+
+    static private final GoGridCache<Map<String,String>> serverIndexes = new GoGridCache<Map<String, String>>(100, 30 * CalendarWrapper.SECOND, 15 * CalendarWrapper.SECOND);
+
+    /**
+     * Identifies the endpoint, account, and region a server index is built for under the current context.
+     * @param regionId the region whose servers are sought
+     * @return the key of the server index
+     * @throws CloudException no context was set for this request
+     * @throws InternalException an error occurred within Dasein Cloud identifying the account
+     */
+    @Nonnull String getServerIndexKey(@Nonnull String regionId) throws CloudException, InternalException {
+        ProviderContext ctx = getContext();
 
         try {
-            if( json.has("id") ) {
-                loadBalancerId = json.getString("id");
+            return ctx.getEndpoint() + "|" + new String(ctx.getAccessPublic(), "utf-8") + "|" + regionId;
+        }
+        catch( UnsupportedEncodingException e ) {
+            e.printStackTrace();
+            throw new InternalException("UTF-8 not supported");
+        }
+    }
+
+    /**
+     * Provides a recently cached index of the servers in a region by the IDs of their IP addresses.
+     * @param key the key of the index as provided by {@link #getServerIndexKey(String)} when the caller captured
+     * its scope; the current context must still match it
+     * @param regionId the region whose servers are sought
+     * @return a map from IP address ID to server ID
+     * @throws CloudException the context has changed since the key was captured or an error occurred listing the
+     * servers
+     * @throws InternalException an error occurred within Dasein Cloud listing the servers
+     */
+    @Nonnull Map<String,String> getServerIndex(@Nonnull String key, @Nonnull final String regionId) throws CloudException, InternalException {
+        if( !key.equals(getServerIndexKey(regionId)) ) {
+            throw new CloudException("The context has changed since the servers for this load balancer were requested");
+        }
+        Map<String,String> servers = serverIndexes.get(key, new GoGridCache.Loader<Map<String, String>>() {
+            public @Nullable Map<String,String> load() throws CloudException, InternalException {
+                HashMap<String,String> index = new HashMap<String, String>();
+
+                indexServers(regionId, index);
+                return Collections.unmodifiableMap(index);
             }
-            if( json.has("state") ) {
-                /*
-                {"id":1,"description":"Loadbalancer is enabled and on.","name":"On","object":"option"},
-                {"id":2,"description":"Loadbalancer is disabled and off.","name":"Off","object":"option"},
-                {"id":3,"description":"Loadbalancer is enabled, but real ips are unreachable.","name":"Unavailable","object":"option"},
-                {"id":4,"description":"Loadbalancer state is unknown.","name":"Unknown","object":"option"}
-                 */
-                JSONObject s = json.getJSONObject("state");
+        });
 
-                if( s.has("id") ) {
-                    int id = s.getInt("id");
+        if( servers == null ) {
+            return Collections.emptyMap();
+        }
+        return servers;
+    }
 
-                    switch( id ) {
-                        case 1: case 3: state = LoadBalancerState.ACTIVE; break;
-                        case 2: case 4: state = LoadBalancerState.PENDING; break;
-                    }
+    /**
+     * Indexes every server in a region by the IDs of its public and private IP addresses so that the real IPs of
+     * any number of load balancers can be resolved to servers with a hash lookup each.
+     * @param regionId the region whose servers should be indexed
+     * @param servers receives the mapping from IP address ID to server ID
+     * @throws CloudException an error occurred listing the servers
+     * @throws InternalException an error occurred within Dasein Cloud listing the servers
+     */
+    private void indexServers(@Nonnull String regionId, @Nonnull final Map<String,String> servers) throws CloudException, InternalException {
+        GoGridMethod method = new GoGridMethod(provider);
+
+        method.stream(GoGridMethod.SERVER_LIST, new GoGridMethod.ItemHandler() {
+            public boolean handle(@Nonnull JSONObject server) throws CloudException {
+                try {
+                    indexServer(server, servers);
+                }
+                catch( JSONException e ) {
+                    logger.error("Failed to parse JSON: " + e.getMessage());
+                    e.printStackTrace();
+                    throw new CloudException(e);
                 }
+                return true;
             }
+        }, new GoGridMethod.Param("datacenter", regionId));
+    }
+
+    /**
+     * Adds the private and public IP addresses of a server to a server index. An address already in the index keeps
+     * the server it was first seen with, matching a scan of the listing that stops at the first server holding the
+     * address.
+     * @param server the server from a <code>SERVER_LIST</code>
+     * @param servers the index from IP address ID to server ID
+     * @throws JSONException the server record is malformed
+     */
+    static void indexServer(@Nonnull JSONObject server, @Nonnull Map<String,String> servers) throws JSONException {
+        if( !server.has("id") ) {
+            return;
         }
-        catch( JSONException e ) {
-            logger.error("Failed to parse load balancer JSON from cloud: " + e.getMessage());
-            e.printStackTrace();
-            throw new CloudException(e);
-        }
-        if( loadBalancerId == null ) {
-            return null;
-        }
-        if( state == null ) {
-            state = LoadBalancerState.PENDING;
+        String serverId = server.getString("id");
+
+        for( String key : new String[] { "privateip", "ip" } ) {
+            if( server.has(key) ) {
+                JSONObject sip = server.getJSONObject(key);
+
+                if( sip.has("id") && !servers.containsKey(sip.getString("id")) ) {
+                    servers.put(sip.getString("id"), serverId);
+                }
+            }
         }
-        return new ResourceStatus(loadBalancerId, state);
     }
 
-    private @Nullable LoadBalancer toLoadBalancer(@Nullable JSONObject json, @Nullable JSONArray servers) throws CloudException, InternalException {
+    private @Nullable LoadBalancer toLoadBalancer(@Nullable JSONObject json, @Nullable Map<String,String> servers) throws CloudException, InternalException {
         if( json == null ) {
             return null;
         }
 
-        LoadBalancer lb = new LoadBalancer();
         String regionId = getRegionId(getContext());
+        LoadBalancer lb = (servers == null ? new GoGridLoadBalancer(this, getServerIndexKey(regionId), regionId) : new LoadBalancer());
 
         lb.setProviderOwnerId(getContext().getAccountNumber());
         lb.setProviderRegionId(regionId);
@@ -631,37 +918,20 @@ public class GoGridLBSupport extends AbstractLoadBalancerSupport<GoGrid> {
                     if( ip.has("ip") ) {
                         JSONObject address = ip.getJSONObject("ip");
 
-                        if( address.has("id") && servers != null ) {
-                            String id = address.getString("id");
-
-                            for( int j=0; j<servers.length(); j++ ) {
-                                JSONObject server = servers.getJSONObject(j);
-                                String serverId = null;
-
-                                if( server.has("privateip") ) {
-                                    JSONObject sip = server.getJSONObject("privateip");
-
-                                    if( sip.has("id") && id.equals(sip.getString("id")) && server.has("id") ) {
-                                        serverId = server.getString("id");
-                                    }
-                                }
-                                if( serverId == null && server.has("ip") ) {
-                                    JSONObject sip = server.getJSONObject("ip");
-
-                                    if( sip.has("id") && id.equals(sip.getString("id")) && server.has("id") ) {
-                                        serverId = server.getString("id");
-                                    }
-                                }
-                                if( serverId != null ) {
-                                    serverIds.add(serverId);
-                                    break;
-                                }
+                        if( address.has("id") ) {
+                            if( servers == null ) {
+                                ((GoGridLoadBalancer)lb).addRealIpId(address.getString("id"));
+                            }
+                            else if( servers.containsKey(address.getString("id")) ) {
+                                serverIds.add(servers.get(address.getString("id")));
                             }
                         }
                     }
                     listeners.add(listener);
                 }
-                lb.setProviderServerIds(serverIds.toArray(new String[serverIds.size()]));
+                if( servers != null ) {
+                    lb.setProviderServerIds(serverIds.toArray(new String[serverIds.size()]));
+                }
                 lb.setListeners(listeners.toArray(new LbListener[listeners.size()]));
             }
         }
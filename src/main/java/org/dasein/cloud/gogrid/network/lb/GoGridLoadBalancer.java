@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2012-2013 enStratus Networks Inc
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.gogrid.network.lb;
+
+import org.apache.log4j.Logger;
+import org.dasein.cloud.CloudException;
+import org.dasein.cloud.InternalException;
+import org.dasein.cloud.gogrid.GoGrid;
+import org.dasein.cloud.network.LoadBalancer;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * A load balancer whose servers are resolved only when first asked for. GoGrid describes load balancer members
+ * by IP address ID, and mapping those back to servers takes a server listing, which callers that only care about
+ * the virtual IP, port, or state should not have to pay for. The mapping is done against the cached server index
+ * for the endpoint, account, and region the load balancer was read from. Callers that want resolution failures
+ * reported as a {@link CloudException} should go through {@link GoGridLBSupport#getProviderServerIds(LoadBalancer)};
+ * the bean getter can only report them unchecked. A failed resolution is retried on the next access.
+ * @version 2013.07 initial version
+ * @since 2013.07
+ */
+@SuppressWarnings("deprecation")
+public class GoGridLoadBalancer extends LoadBalancer {
+    static private final Logger logger = GoGrid.getLogger(GoGridLoadBalancer.class);
+
+    private final ArrayList<String> realIpIds = new ArrayList<String>();
+    private final String            regionId;
+    private boolean                 resolved;
+    private final String            scope;
+    private GoGridLBSupport         support;
+
+    GoGridLoadBalancer(@Nonnull GoGridLBSupport support, @Nonnull String scope, @Nonnull String regionId) {
+        this.support = support;
+        this.scope = scope;
+        this.regionId = regionId;
+    }
+
+    void addRealIpId(@Nonnull String ipAddressId) {
+        realIpIds.add(ipAddressId);
+    }
+
+    /**
+     * Resolves the servers behind this load balancer unless they are already known. The server index is fetched
+     * without holding this load balancer's lock.
+     * @return the servers behind this load balancer
+     * @throws CloudException the context has changed since this load balancer was read or an error occurred
+     * listing the servers
+     * @throws InternalException an error occurred within Dasein Cloud listing the servers
+     */
+    @Nonnull String[] resolveServerIds() throws CloudException, InternalException {
+        GoGridLBSupport current;
+
+        synchronized( this ) {
+            if( resolved ) {
+                String[] ids = super.getProviderServerIds();
+
+                return (ids == null ? new String[0] : ids);
+            }
+            current = support;
+        }
+        Map<String,String> servers = current.getServerIndex(scope, regionId);
+        TreeSet<String> serverIds = new TreeSet<String>();
+
+        for( String id : realIpIds ) {
+            String serverId = servers.get(id);
+
+            if( serverId != null ) {
+                serverIds.add(serverId);
+            }
+        }
+        String[] ids = serverIds.toArray(new String[serverIds.size()]);
+
+        synchronized( this ) {
+            if( !resolved ) {
+                setProviderServerIds(ids);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * @return the servers behind this load balancer
+     * @throws IllegalStateException the servers could not be resolved on this call
+     */
+    @Override
+    public String[] getProviderServerIds() {
+        try {
+            return resolveServerIds();
+        }
+        catch( CloudException e ) {
+            logger.error("Unable to resolve the servers behind " + getProviderLoadBalancerId() + ": " + e.getMessage());
+            throw new IllegalStateException("Unable to resolve the servers behind " + getProviderLoadBalancerId(), e);
+        }
+        catch( InternalException e ) {
+            logger.error("Unable to resolve the servers behind " + getProviderLoadBalancerId() + ": " + e.getMessage());
+            throw new IllegalStateException("Unable to resolve the servers behind " + getProviderLoadBalancerId(), e);
+        }
+    }
+
+    @Override
+    public synchronized void setProviderServerIds(String[] serverIds) {
+        resolved = true;
+        support = null;
+        super.setProviderServerIds(serverIds);
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright (C) 2012-2013 enStratus Networks Inc
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.gogrid;
+
+import org.junit.Test;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class GoGridCacheTest {
+    static private class ManualClock implements GoGridCache.Clock {
+        private long now = 1000000L;
+
+        public long currentTimeMillis() {
+            return now;
+        }
+
+        public void advance(long millis) {
+            now += millis;
+        }
+    }
+
+    /**
+     * Runs background refreshes on the calling thread so each refresh has finished when <code>get()</code> returns.
+     */
+    static private final Executor INLINE = new Executor() {
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    static private class CountingLoader implements GoGridCache.Loader<String> {
+        public final AtomicInteger loads = new AtomicInteger(0);
+
+        public String load() {
+            return "value-" + loads.incrementAndGet();
+        }
+    }
+
+    @Test
+    public void servesCachedValue() throws Exception {
+        ManualClock clock = new ManualClock();
+        GoGridCache<String> cache = new GoGridCache<String>(10, 60000L, 60000L, clock, INLINE);
+        CountingLoader loader = new CountingLoader();
+
+        assertEquals("value-1", cache.get("key", loader));
+        clock.advance(59000L);
+        assertEquals("value-1", cache.get("key", loader));
+        assertEquals(1, loader.loads.get());
+    }
+
+    @Test
+    public void staleValueIsServedWhileRefreshing() throws Exception {
+        ManualClock clock = new ManualClock();
+        GoGridCache<String> cache = new GoGridCache<String>(10, 60000L, 10000L, clock, INLINE);
+        CountingLoader loader = new CountingLoader();
+
+        assertEquals("value-1", cache.get("key", loader));
+        clock.advance(10001L);
+        // the caller gets the old value and the refresh replaces it for the next one
+        assertEquals("value-1", cache.get("key", loader));
+        assertEquals(2, loader.loads.get());
+        assertEquals("value-2", cache.get("key", loader));
+        assertEquals(2, loader.loads.get());
+    }
+
+    @Test
+    public void expiredValueIsReloaded() throws Exception {
+        ManualClock clock = new ManualClock();
+        GoGridCache<String> cache = new GoGridCache<String>(10, 60000L, 60000L, clock, INLINE);
+        CountingLoader loader = new CountingLoader();
+
+        assertEquals("value-1", cache.get("key", loader));
+        clock.advance(60000L);
+        assertEquals("value-2", cache.get("key", loader));
+    }
+
+    @Test
+    public void refreshRetriesAfterEmptyLoad() throws Exception {
+        ManualClock clock = new ManualClock();
+        GoGridCache<String> cache = new GoGridCache<String>(10, 60000L, 1000L, clock, INLINE);
+        final AtomicInteger loads = new AtomicInteger(0);
+        GoGridCache.Loader<String> loader = new GoGridCache.Loader<String>() {
+            public String load() {
+                // the first load populates the cache; the first background refresh finds nothing
+                int n = loads.incrementAndGet();
+
+                return (n == 2 ? null : "value-" + n);
+            }
+        };
+
+        assertEquals("value-1", cache.get("key", loader));
+        clock.advance(1001L);
+        assertEquals("value-1", cache.get("key", loader));
+        assertEquals(2, loads.get());
+        assertEquals("value-1", cache.get("key", loader));
+        assertEquals("A refresh after an empty load never ran", 3, loads.get());
+        assertEquals("value-3", cache.get("key", loader));
+    }
+
+    @Test
+    public void refreshFailureDoesNotBlockLaterRefreshes() throws Exception {
+        ManualClock clock = new ManualClock();
+        GoGridCache<String> cache = new GoGridCache<String>(10, 60000L, 1000L, clock, INLINE);
+        final AtomicInteger loads = new AtomicInteger(0);
+        GoGridCache.Loader<String> loader = new GoGridCache.Loader<String>() {
+            public String load() {
+                int n = loads.incrementAndGet();
+
+                if( n == 2 ) {
+                    throw new IllegalStateException("refresh failed");
+                }
+                return "value-" + n;
+            }
+        };
+
+        assertEquals("value-1", cache.get("key", loader));
+        clock.advance(1001L);
+        assertEquals("value-1", cache.get("key", loader));
+        assertEquals("value-1", cache.get("key", loader));
+        assertEquals(3, loads.get());
+        assertEquals("value-3", cache.get("key", loader));
+    }
+
+    @Test
+    public void emptyLoadIsNotCached() throws Exception {
+        GoGridCache<String> cache = new GoGridCache<String>(10, 60000L, 60000L, new ManualClock(), INLINE);
+        final AtomicInteger loads = new AtomicInteger(0);
+        GoGridCache.Loader<String> loader = new GoGridCache.Loader<String>() {
+            public String load() {
+                loads.incrementAndGet();
+                return null;
+            }
+        };
+
+        assertNull(cache.get("key", loader));
+        assertNull(cache.get("key", loader));
+        assertEquals(2, loads.get());
+    }
+}
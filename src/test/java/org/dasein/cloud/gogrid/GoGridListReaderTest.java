@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2012-2013 enStratus Networks Inc
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.gogrid;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.StringReader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GoGridListReaderTest {
+    @Test
+    public void readsEveryElementInOrder() throws Exception {
+        StringBuilder json = new StringBuilder();
+        int count = 250;
+
+        json.append("{\"summary\":{\"total\":").append(count).append(",\"returned\":").append(count).append("},\"status\":\"success\",\"list\":[");
+        for( int i=0; i<count; i++ ) {
+            if( i > 0 ) {
+                json.append(",");
+            }
+            json.append("{\"id\":").append(i).append(",\"name\":\"server-").append(i).append("\",\"ip\":{\"id\":").append(1000 + i).append(",\"ip\":\"10.0.0.1\"},\"tags\":[\"a\",\"]\"]}");
+        }
+        json.append("],\"method\":\"/grid/server/list\"}");
+
+        GoGridListReader reader = new GoGridListReader(new StringReader(json.toString()));
+
+        for( int i=0; i<count; i++ ) {
+            JSONObject item = reader.next();
+
+            assertEquals(i, item.getInt("id"));
+            assertEquals("server-" + i, item.getString("name"));
+            assertEquals(1000 + i, item.getJSONObject("ip").getInt("id"));
+        }
+        assertNull(reader.next());
+        assertNull(reader.next());
+        assertTrue(reader.isListPresent());
+    }
+
+    @Test
+    public void readsFromStringSource() throws Exception {
+        GoGridListReader reader = new GoGridListReader("{\"list\":[{\"id\":1},{\"id\":2}]}");
+
+        assertEquals(1, reader.next().getInt("id"));
+        assertEquals(2, reader.next().getInt("id"));
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void readsEmptyList() throws Exception {
+        GoGridListReader reader = new GoGridListReader("{\"status\":\"success\",\"list\":[]}");
+
+        assertNull(reader.next());
+        assertTrue(reader.isListPresent());
+    }
+
+    @Test
+    public void reportsMissingList() throws Exception {
+        GoGridListReader reader = new GoGridListReader("{\"status\":\"success\",\"summary\":{\"total\":0}}");
+
+        assertNull(reader.next());
+        assertFalse(reader.isListPresent());
+    }
+
+    @Test(expected=JSONException.class)
+    public void rejectsNonObjectElements() throws Exception {
+        new GoGridListReader("{\"list\":[1]}").next();
+    }
+}
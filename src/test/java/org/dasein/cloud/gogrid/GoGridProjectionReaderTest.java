@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2012-2013 enStratus Networks Inc
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.gogrid;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class GoGridProjectionReaderTest {
+    static private final String[] FIELDS = { "id", "state.id", "owner.id" };
+
+    static private List<String[]> read(String json, String ... fields) throws JSONException {
+        GoGridProjectionReader reader = new GoGridProjectionReader(new StringReader(json), fields);
+        ArrayList<String[]> rows = new ArrayList<String[]>();
+        String[] values;
+
+        while( (values = reader.next()) != null ) {
+            rows.add(values);
+        }
+        return rows;
+    }
+
+    @Test
+    public void readsNestedPaths() throws Exception {
+        List<String[]> rows = read("{\"summary\":{\"total\":2},\"status\":\"success\",\"list\":[" +
+                "{\"id\":1,\"name\":\"a\",\"state\":{\"id\":2,\"name\":\"On\"},\"owner\":{\"id\":7,\"name\":\"me\"}}," +
+                "{\"owner\":{\"name\":\"gogrid\",\"id\":0},\"state\":{\"name\":\"Off\",\"id\":3},\"id\":\"2\"}]}", FIELDS);
+
+        assertEquals(2, rows.size());
+        assertArrayEquals(new String[] { "1", "2", "7" }, rows.get(0));
+        assertArrayEquals(new String[] { "2", "3", "0" }, rows.get(1));
+    }
+
+    @Test
+    public void skipsArraysAndReportsThemAsAbsent() throws Exception {
+        List<String[]> rows = read("{\"list\":[{\"id\":[1,2,{\"id\":3}],\"tags\":[[\"x\",\"]\"],{}],\"state\":{\"id\":4,\"history\":[{\"id\":1}]}}]}", FIELDS);
+
+        assertEquals(1, rows.size());
+        assertArrayEquals(new String[] { null, "4", null }, rows.get(0));
+    }
+
+    @Test
+    public void handlesEscapedQuotes() throws Exception {
+        List<String[]> rows = read("{\"list\":[{\"description\":\"say \\\"}\\\" and \\\\\",\"id\":\"a\\\"b\",\"state\":{\"id\":1}}]}", FIELDS);
+
+        assertEquals(1, rows.size());
+        assertArrayEquals(new String[] { "a\"b", "1", null }, rows.get(0));
+    }
+
+    @Test
+    public void treatsNullAsAbsent() throws Exception {
+        List<String[]> rows = read("{\"list\":[{\"id\":5,\"state\":null,\"owner\":{\"id\":null}}]}", FIELDS);
+
+        assertEquals(1, rows.size());
+        assertArrayEquals(new String[] { "5", null, null }, rows.get(0));
+    }
+
+    @Test
+    public void readsEmptyList() throws Exception {
+        assertEquals(0, read("{\"status\":\"success\",\"list\":[],\"summary\":{\"total\":0}}", FIELDS).size());
+    }
+
+    @Test
+    public void readsMissingList() throws Exception {
+        assertEquals(0, read("{\"status\":\"success\",\"summary\":{\"total\":0}}", FIELDS).size());
+    }
+
+    @Test
+    public void skipsMembersAfterTheList() throws Exception {
+        List<String[]> rows = read("{\"list\":[{\"id\":1},{\"id\":2}],\"summary\":{\"returned\":2}}", "id");
+
+        assertEquals(2, rows.size());
+        assertEquals("2", rows.get(1)[0]);
+    }
+
+    @Test(expected=JSONException.class)
+    public void rejectsNonObjectResponse() throws Exception {
+        read("[1,2]", FIELDS);
+    }
+
+    @Test
+    public void extractMatchesReader() throws Exception {
+        String item = "{\"id\":9,\"state\":{\"id\":2},\"owner\":{\"id\":[1]},\"name\":\"x\"}";
+        String[] extracted = GoGridProjectionReader.extract(new JSONObject(item), FIELDS);
+
+        assertArrayEquals(read("{\"list\":[" + item + "]}", FIELDS).get(0), extracted);
+        assertNull(extracted[2]);
+    }
+}
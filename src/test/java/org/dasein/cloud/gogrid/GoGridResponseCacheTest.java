@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2012-2013 enStratus Networks Inc
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.gogrid;
+
+import org.json.JSONArray;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class GoGridResponseCacheTest {
+    static private final String SCOPE = "https://api.example.com|key";
+
+    @After
+    public void clear() {
+        GoGridResponseCache.clear();
+    }
+
+    @Test
+    public void cachesListings() {
+        String key = GoGridResponseCache.toKey(SCOPE, GoGridMethod.SERVER_LIST, null);
+        long generation = GoGridResponseCache.getGeneration(SCOPE, GoGridMethod.SERVER_LIST);
+
+        GoGridResponseCache.put(key, SCOPE, GoGridMethod.SERVER_LIST, new JSONArray(), generation);
+        assertNotNull(GoGridResponseCache.get(key));
+    }
+
+    @Test
+    public void mutationDropsCachedListings() {
+        String key = GoGridResponseCache.toKey(SCOPE, GoGridMethod.SERVER_LIST, null);
+        long generation = GoGridResponseCache.getGeneration(SCOPE, GoGridMethod.SERVER_LIST);
+
+        GoGridResponseCache.put(key, SCOPE, GoGridMethod.SERVER_LIST, new JSONArray(), generation);
+        GoGridResponseCache.invalidate(SCOPE, GoGridMethod.SERVER_ADD);
+        assertNull(GoGridResponseCache.get(key));
+    }
+
+    @Test
+    public void listingLoadedAcrossMutationIsNotCached() {
+        String key = GoGridResponseCache.toKey(SCOPE, GoGridMethod.SERVER_LIST, null);
+        long generation = GoGridResponseCache.getGeneration(SCOPE, GoGridMethod.SERVER_LIST);
+
+        // the listing is in flight when the mutation lands
+        GoGridResponseCache.invalidate(SCOPE, GoGridMethod.SERVER_DELETE);
+        GoGridResponseCache.put(key, SCOPE, GoGridMethod.SERVER_LIST, new JSONArray(), generation);
+        assertNull(GoGridResponseCache.get(key));
+    }
+
+    @Test
+    public void unrelatedMutationKeepsListing() {
+        String key = GoGridResponseCache.toKey(SCOPE, GoGridMethod.IMAGE_LIST, null);
+        long generation = GoGridResponseCache.getGeneration(SCOPE, GoGridMethod.IMAGE_LIST);
+
+        GoGridResponseCache.invalidate(SCOPE, GoGridMethod.LB_ADD);
+        GoGridResponseCache.put(key, SCOPE, GoGridMethod.IMAGE_LIST, new JSONArray(), generation);
+        assertNotNull(GoGridResponseCache.get(key));
+    }
+}
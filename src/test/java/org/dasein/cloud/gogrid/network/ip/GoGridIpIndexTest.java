@@ -0,0 +1,77 @@
+/**
+ * Copyright (C) 2012-2013 enStratus Networks Inc
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.gogrid.network.ip;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class GoGridIpIndexTest {
+    static private JSONObject server(String id, String ipId) throws Exception {
+        return new JSONObject("{\"id\":" + id + ",\"name\":\"s" + id + "\",\"ip\":{\"id\":" + ipId + ",\"ip\":\"10.0.0.1\"}}");
+    }
+
+    static private JSONObject loadBalancer(String id, String ipId) throws Exception {
+        return new JSONObject("{\"id\":" + id + ",\"virtualip\":{\"ip\":{\"id\":" + ipId + "},\"port\":80}}");
+    }
+
+    @Test
+    public void indexesServersAndLoadBalancers() throws Exception {
+        GoGridIpIndex index = new GoGridIpIndex();
+
+        index.indexServer(server("1", "100"));
+        index.indexLoadBalancer(loadBalancer("2", "200"));
+        assertEquals("1", index.getServerId("100"));
+        assertEquals("2", index.getLoadBalancerId("200"));
+        assertNull(index.getServerId("200"));
+        assertNull(index.getLoadBalancerId("100"));
+    }
+
+    @Test
+    public void ignoresEntriesWithoutAnAddress() throws Exception {
+        GoGridIpIndex index = new GoGridIpIndex();
+
+        index.indexServer(new JSONObject("{\"id\":1,\"name\":\"no-ip\"}"));
+        index.indexServer(new JSONObject("{\"id\":2,\"ip\":{\"ip\":\"10.0.0.2\"}}"));
+        index.indexLoadBalancer(new JSONObject("{\"id\":3}"));
+        index.indexLoadBalancer(new JSONObject("{\"id\":4,\"virtualip\":{\"port\":80}}"));
+        assertNull(index.getServerId("1"));
+        assertNull(index.getServerId("2"));
+        assertNull(index.getLoadBalancerId("3"));
+        assertNull(index.getLoadBalancerId("4"));
+    }
+
+    @Test(timeout=10000L)
+    public void joinsTenThousandAddresses() throws Exception {
+        GoGridIpIndex index = new GoGridIpIndex();
+        int count = 10000;
+
+        for( int i=0; i<count; i++ ) {
+            index.indexServer(server(String.valueOf(i), String.valueOf(100000 + i)));
+            index.indexLoadBalancer(loadBalancer(String.valueOf(i), String.valueOf(200000 + i)));
+        }
+        for( int i=0; i<count; i++ ) {
+            assertEquals(String.valueOf(i), index.getServerId(String.valueOf(100000 + i)));
+            assertEquals(String.valueOf(i), index.getLoadBalancerId(String.valueOf(200000 + i)));
+        }
+        assertNull(index.getServerId(String.valueOf(100000 + count)));
+    }
+}
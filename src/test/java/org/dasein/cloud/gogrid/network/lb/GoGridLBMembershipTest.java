@@ -0,0 +1,135 @@
+/**
+ * Copyright (C) 2012-2013 enStratus Networks Inc
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.gogrid.network.lb;
+
+import org.dasein.cloud.ProviderContext;
+import org.dasein.cloud.gogrid.GoGrid;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class GoGridLBMembershipTest {
+    static private class RecordingSupport extends GoGridLBSupport {
+        public final List<String> edits = Collections.synchronizedList(new ArrayList<String>());
+
+        public RecordingSupport(GoGrid provider) {
+            super(provider);
+        }
+
+        @Override
+        void applyMembership(String loadBalancerId, Collection<String> add, Collection<String> remove) {
+            ArrayList<String> a = new ArrayList<String>(add);
+            ArrayList<String> r = new ArrayList<String>(remove);
+
+            Collections.sort(a);
+            Collections.sort(r);
+            edits.add("+" + a + "-" + r);
+        }
+    }
+
+    private GoGrid provider;
+
+    @Before
+    public void connect() throws Exception {
+        ProviderContext ctx = new ProviderContext();
+
+        ctx.setEndpoint("https://api.example.com");
+        ctx.setAccessPublic("key".getBytes("utf-8"));
+        ctx.setRegionId("1");
+        provider = new GoGrid();
+        provider.connect(ctx);
+    }
+
+    @Test
+    public void mergesCompatibleChanges() throws Exception {
+        RecordingSupport support = new RecordingSupport(provider);
+        Future<Void> a = GoGridLBMembership.submit(provider, support, "lb-merge", Arrays.asList("1"), Collections.<String>emptyList());
+        Future<Void> b = GoGridLBMembership.submit(provider, support, "lb-merge", Arrays.asList("2"), Arrays.asList("3"));
+
+        a.get(5, TimeUnit.SECONDS);
+        b.get(5, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("+[1, 2]-[3]"), support.edits);
+    }
+
+    @Test
+    public void conflictingChangesAreAppliedInOrder() throws Exception {
+        RecordingSupport support = new RecordingSupport(provider);
+        Future<Void> a = GoGridLBMembership.submit(provider, support, "lb-conflict", Arrays.asList("1"), Collections.<String>emptyList());
+        Future<Void> b = GoGridLBMembership.submit(provider, support, "lb-conflict", Collections.<String>emptyList(), Arrays.asList("1"));
+
+        a.get(5, TimeUnit.SECONDS);
+        b.get(5, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("+[1]-[]", "+[]-[1]"), support.edits);
+    }
+
+    @Test
+    public void changesThroughSeparateSupportsShareABatch() throws Exception {
+        // GoGridNetworking hands out a new support for every call
+        RecordingSupport first = new RecordingSupport(provider);
+        RecordingSupport second = new RecordingSupport(provider);
+        Future<Void> a = GoGridLBMembership.submit(provider, first, "lb-support", Arrays.asList("1"), Collections.<String>emptyList());
+        Future<Void> b = GoGridLBMembership.submit(provider, second, "lb-support", Arrays.asList("2"), Collections.<String>emptyList());
+
+        a.get(5, TimeUnit.SECONDS);
+        b.get(5, TimeUnit.SECONDS);
+        ArrayList<String> edits = new ArrayList<String>(first.edits);
+
+        edits.addAll(second.edits);
+        assertEquals(Arrays.asList("+[1, 2]-[]"), edits);
+    }
+
+    @Test
+    public void changesFromAnotherRegionGetTheirOwnBatch() throws Exception {
+        ProviderContext ctx = new ProviderContext();
+
+        ctx.setEndpoint("https://api.example.com");
+        ctx.setAccessPublic("key".getBytes("utf-8"));
+        ctx.setRegionId("2");
+        GoGrid other = new GoGrid();
+
+        other.connect(ctx);
+        RecordingSupport first = new RecordingSupport(provider);
+        RecordingSupport second = new RecordingSupport(other);
+        Future<Void> a = GoGridLBMembership.submit(provider, first, "lb-region", Arrays.asList("1"), Collections.<String>emptyList());
+        Future<Void> b = GoGridLBMembership.submit(other, second, "lb-region", Arrays.asList("2"), Collections.<String>emptyList());
+
+        a.get(5, TimeUnit.SECONDS);
+        b.get(5, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("+[1]-[]"), first.edits);
+        assertEquals(Arrays.asList("+[2]-[]"), second.edits);
+    }
+
+    @Test
+    public void drainedQueueAcceptsNewChanges() throws Exception {
+        RecordingSupport support = new RecordingSupport(provider);
+
+        GoGridLBMembership.submit(provider, support, "lb-drain", Arrays.asList("1"), Collections.<String>emptyList()).get(5, TimeUnit.SECONDS);
+        GoGridLBMembership.submit(provider, support, "lb-drain", Arrays.asList("2"), Collections.<String>emptyList()).get(5, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("+[1]-[]", "+[2]-[]"), support.edits);
+    }
+}
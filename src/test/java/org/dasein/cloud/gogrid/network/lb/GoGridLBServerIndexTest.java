@@ -0,0 +1,134 @@
+/**
+ * Copyright (C) 2012-2013 enStratus Networks Inc
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.gogrid.network.lb;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class GoGridLBServerIndexTest {
+    static private JSONArray servers(String json) throws Exception {
+        return new JSONArray(json);
+    }
+
+    static private HashMap<String,String> index(JSONArray servers) throws Exception {
+        HashMap<String,String> index = new HashMap<String, String>();
+
+        for( int i=0; i<servers.length(); i++ ) {
+            GoGridLBSupport.indexServer(servers.getJSONObject(i), index);
+        }
+        return index;
+    }
+
+    /**
+     * The per-IP scan that the index replaces.
+     */
+    static private String scan(JSONArray servers, String id) throws Exception {
+        for( int j=0; j<servers.length(); j++ ) {
+            JSONObject server = servers.getJSONObject(j);
+            String serverId = null;
+
+            if( server.has("privateip") ) {
+                JSONObject sip = server.getJSONObject("privateip");
+
+                if( sip.has("id") && id.equals(sip.getString("id")) && server.has("id") ) {
+                    serverId = server.getString("id");
+                }
+            }
+            if( serverId == null && server.has("ip") ) {
+                JSONObject sip = server.getJSONObject("ip");
+
+                if( sip.has("id") && id.equals(sip.getString("id")) && server.has("id") ) {
+                    serverId = server.getString("id");
+                }
+            }
+            if( serverId != null ) {
+                return serverId;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void indexesPrivateAndPublicAddresses() throws Exception {
+        HashMap<String,String> index = index(servers("[{\"id\":1,\"ip\":{\"id\":10},\"privateip\":{\"id\":11}},{\"id\":2,\"ip\":{\"id\":20}}]"));
+
+        assertEquals("1", index.get("10"));
+        assertEquals("1", index.get("11"));
+        assertEquals("2", index.get("20"));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void firstServerWins() throws Exception {
+        JSONArray list = servers("[{\"id\":1,\"ip\":{\"id\":10}},{\"id\":2,\"privateip\":{\"id\":10}}]");
+
+        assertEquals("1", index(list).get("10"));
+        assertEquals(scan(list, "10"), index(list).get("10"));
+    }
+
+    @Test
+    public void privateAddressBeforePublicWithinAServer() throws Exception {
+        // a malformed record naming the same address twice still resolves to the one server
+        JSONArray list = servers("[{\"id\":1,\"ip\":{\"id\":10},\"privateip\":{\"id\":10}},{\"id\":2,\"ip\":{\"id\":10}}]");
+
+        assertEquals("1", index(list).get("10"));
+        assertEquals(scan(list, "10"), index(list).get("10"));
+    }
+
+    @Test
+    public void skipsServersWithoutIds() throws Exception {
+        HashMap<String,String> index = index(servers("[{\"ip\":{\"id\":10}},{\"id\":2,\"ip\":{\"id\":10}},{\"id\":3,\"ip\":{}}]"));
+
+        assertEquals("2", index.get("10"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void matchesPerAddressScan() throws Exception {
+        Random random = new Random(42L);
+        JSONArray list = new JSONArray();
+
+        // a few thousand servers drawing addresses from a small pool so that collisions are common
+        for( int i=0; i<3000; i++ ) {
+            JSONObject server = new JSONObject();
+
+            if( random.nextInt(20) != 0 ) {
+                server.put("id", String.valueOf(i));
+            }
+            if( random.nextBoolean() ) {
+                server.put("ip", new JSONObject().put("id", String.valueOf(random.nextInt(2000))));
+            }
+            if( random.nextBoolean() ) {
+                server.put("privateip", new JSONObject().put("id", String.valueOf(random.nextInt(2000))));
+            }
+            list.put(server);
+        }
+        HashMap<String,String> index = index(list);
+
+        for( int id=0; id<2000; id++ ) {
+            assertEquals("address " + id, scan(list, String.valueOf(id)), index.get(String.valueOf(id)));
+        }
+    }
+}